@@ -0,0 +1,108 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseListResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.service.CatalogSnapshotService;
+import com.courseplatform.service.CourseTreeLoader;
+import com.courseplatform.service.CourseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CourseService.getAllCourses} and {@code getCourseById} DTO mapping, either
+ * from course summaries and trees (the database path, with the tree loader stubbed) or
+ * from the memory-mapped catalog snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogReadBenchmark {
+
+    @Param({"20"})
+    int courses;
+
+    @Param({"5"})
+    int topics;
+
+    @Param({"6"})
+    int subtopics;
+
+    @Param({"2000"})
+    int contentLength;
+
+    @Param({"database", "snapshot"})
+    String source;
+
+    private CourseService courseService;
+    private Path snapshotDirectory;
+    private String courseId;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticCatalog catalog = new SyntheticCatalog(courses, topics, subtopics, contentLength);
+        Map<String, Course> byId = new HashMap<>();
+        catalog.courses().forEach(course -> byId.put(course.getId(), course));
+        courseId = catalog.course(courses / 2).getId();
+
+        CourseRepository courseRepository = Stubs.repository(CourseRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(byId.get((String) args[0]))
+        ));
+
+        snapshotDirectory = Files.createTempDirectory("catalog-snapshot-bench");
+        CatalogSnapshotService snapshotService = new CatalogSnapshotService();
+        CourseTreeLoader courseTreeLoader = Stubs.courseTreeLoader(catalog);
+        Stubs.set(snapshotService, "courseTreeLoader", courseTreeLoader);
+        Stubs.set(snapshotService, "catalogVersionService", Stubs.catalogVersionService());
+        Stubs.set(snapshotService, "transactionManager", Stubs.noOpTransactionManager());
+        Stubs.set(snapshotService, "enabled", true);
+        Stubs.set(snapshotService, "path", snapshotDirectory.resolve("catalog.snapshot"));
+        if ("snapshot".equals(source)) {
+            snapshotService.rebuild();
+        }
+
+        courseService = new CourseService();
+        Stubs.set(courseService, "courseRepository", courseRepository);
+        Stubs.set(courseService, "subtopicRepository", Stubs.repository(SubtopicRepository.class, Map.of()));
+        Stubs.set(courseService, "contentStore", Stubs.contentStore(catalog));
+        Stubs.set(courseService, "courseTreeLoader", courseTreeLoader);
+        Stubs.set(courseService, "catalogSnapshotService", snapshotService);
+        Stubs.set(courseService, "transactionManager", Stubs.noOpTransactionManager());
+        Stubs.set(courseService, "singleFlight", Stubs.singleFlight());
+        Stubs.set(courseService, "lookupFilters", Stubs.lookupFilters());
+        Stubs.invoke(courseService, "init");
+        Stubs.requireWired(courseService);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(snapshotDirectory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(snapshotDirectory);
+    }
+
+    @Benchmark
+    public CourseListResponse getAllCourses() {
+        return courseService.getAllCourses();
+    }
+
+    @Benchmark
+    public CourseDetailResponse getCourseById() {
+        return courseService.getCourseById(courseId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code JwtUtil} token issuing and parsing, including the sequence of calls the
+ * authentication filter makes for every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        Stubs.set(jwtUtil, "secret", "benchmark-secret-benchmark-secret-benchmark-secret");
+        Stubs.set(jwtUtil, "expiration", 86_400_000L);
+        token = jwtUtil.generateToken(EMAIL, 1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, 1L);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public void filterPath(Blackhole blackhole) {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(jwtUtil.validateToken(token, claims.getSubject()));
+    }
+}
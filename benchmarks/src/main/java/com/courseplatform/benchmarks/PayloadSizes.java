@@ -0,0 +1,36 @@
+package com.courseplatform.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prints the encoded size of each response payload per wire format, raw and gzipped,
+ * using the same catalog shape as {@link SerializationBenchmark}'s defaults.
+ * <pre>java -cp target/benchmarks.jar com.courseplatform.benchmarks.PayloadSizes</pre>
+ */
+public class PayloadSizes {
+
+    public static void main(String[] args) throws Exception {
+        ResponsePayloads payloads = new ResponsePayloads(new SyntheticCatalog(20, 5, 6, 2000));
+
+        System.out.printf("%-10s %-10s %10s %10s %8s%n", "payload", "format", "bytes", "gzip", "vs json");
+        for (String payload : ResponsePayloads.PAYLOADS) {
+            Object value = payloads.payload(payload);
+            int jsonSize = ResponsePayloads.serializer("json").serialize(value).length;
+            for (String format : ResponsePayloads.FORMATS) {
+                byte[] encoded = ResponsePayloads.serializer(format).serialize(value);
+                System.out.printf("%-10s %-10s %10d %10d %7.0f%%%n", payload, format, encoded.length,
+                        gzip(encoded).length, 100.0 * encoded.length / jsonSize);
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.datasource.ReadYourWritesTracker;
+import com.courseplatform.dto.ProgressResponse;
+import com.courseplatform.entity.*;
+import com.courseplatform.repository.*;
+import com.courseplatform.service.EnrollmentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code EnrollmentService.getProgress}: counting the course's subtopics and
+ * aggregating the enrollment's progress records into the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgressBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final long ENROLLMENT_ID = 10L;
+
+    @Param({"10"})
+    int topics;
+
+    @Param({"10"})
+    int subtopics;
+
+    @Param({"0.5"})
+    double completedFraction;
+
+    private EnrollmentService enrollmentService;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(1, topics, subtopics, 200);
+        Course course = catalog.course(0);
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail("bench@example.com");
+
+        Enrollment enrollment = new Enrollment();
+        enrollment.setId(ENROLLMENT_ID);
+        enrollment.setUser(user);
+        enrollment.setCourse(course);
+
+        List<Subtopic> all = catalog.subtopics(course);
+        int completed = (int) Math.round(all.size() * completedFraction);
+        List<SubtopicProgress> progress = new ArrayList<>(completed);
+        for (int i = 0; i < completed; i++) {
+            SubtopicProgress record = new SubtopicProgress();
+            record.setId((long) i);
+            record.setEnrollment(enrollment);
+            record.setSubtopic(all.get(i));
+            record.setCompleted(true);
+            record.setCompletedAt(LocalDateTime.now().minusMinutes(i));
+            progress.add(record);
+        }
+
+        enrollmentService = new EnrollmentService();
+        Stubs.set(enrollmentService, "enrollmentRepository", Stubs.repository(EnrollmentRepository.class, Map.of(
+                "findById", args -> Optional.of(enrollment))));
+        Stubs.set(enrollmentService, "subtopicProgressRepository", Stubs.repository(SubtopicProgressRepository.class, Map.of(
+                "findByEnrollmentId", args -> progress)));
+        Stubs.set(enrollmentService, "courseRepository", Stubs.repository(CourseRepository.class, Map.of()));
+        Stubs.set(enrollmentService, "userRepository", Stubs.repository(UserRepository.class, Map.of()));
+        Stubs.set(enrollmentService, "subtopicRepository", Stubs.repository(SubtopicRepository.class, Map.of()));
+        Stubs.set(enrollmentService, "courseTreeLoader", Stubs.courseTreeLoader(catalog));
+        Stubs.set(enrollmentService, "readYourWritesTracker", new ReadYourWritesTracker());
+        Stubs.set(enrollmentService, "lookupFilters", Stubs.lookupFilters());
+        Stubs.requireWired(enrollmentService);
+    }
+
+    @Benchmark
+    public ProgressResponse getProgress() {
+        return enrollmentService.getProgress(ENROLLMENT_ID, USER_ID);
+    }
+}
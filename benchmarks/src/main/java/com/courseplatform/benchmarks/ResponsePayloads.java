@@ -0,0 +1,105 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.dto.CompletedItem;
+import com.courseplatform.dto.ProgressResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.service.CatalogSnapshotService;
+import com.courseplatform.service.CourseService;
+import com.courseplatform.web.ProtobufResponseConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The response DTOs and wire formats compared by {@link SerializationBenchmark} and
+ * {@link PayloadSizes}. Payloads come from {@code CourseService} over a synthetic
+ * catalog; mappers are configured like the application's (ISO-8601 dates).
+ */
+final class ResponsePayloads {
+
+    static final String[] FORMATS = {"json", "cbor", "smile", "protobuf"};
+    static final String[] PAYLOADS = {"courses", "course", "search", "progress"};
+
+    private final SyntheticCatalog catalog;
+    private final CourseService courseService;
+
+    ResponsePayloads(SyntheticCatalog catalog) {
+        this.catalog = catalog;
+        Map<String, Course> byId = new HashMap<>();
+        catalog.courses().forEach(course -> byId.put(course.getId(), course));
+        CourseRepository courseRepository = Stubs.repository(CourseRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(byId.get((String) args[0])),
+                "searchCourses", args -> catalog.courses()
+        ));
+        courseService = new CourseService();
+        Stubs.set(courseService, "courseRepository", courseRepository);
+        Stubs.set(courseService, "subtopicRepository", Stubs.repository(SubtopicRepository.class, Map.of()));
+        Stubs.set(courseService, "contentStore", Stubs.contentStore(catalog));
+        Stubs.set(courseService, "courseTreeLoader", Stubs.courseTreeLoader(catalog));
+        Stubs.set(courseService, "catalogSnapshotService", new CatalogSnapshotService());
+        Stubs.set(courseService, "transactionManager", Stubs.noOpTransactionManager());
+        Stubs.set(courseService, "singleFlight", Stubs.singleFlight());
+        Stubs.set(courseService, "lookupFilters", Stubs.lookupFilters());
+        Stubs.invoke(courseService, "init");
+        Stubs.requireWired(courseService);
+    }
+
+    Object payload(String name) {
+        Course course = catalog.course(catalog.courses().size() / 2);
+        return switch (name) {
+            case "courses" -> courseService.getAllCourses();
+            case "course" -> courseService.getCourseById(course.getId());
+            case "search" -> courseService.searchCourses(SyntheticCatalog.RARE_TERM);
+            case "progress" -> progress(course);
+            default -> throw new IllegalArgumentException("Unknown payload: " + name);
+        };
+    }
+
+    /** Serializes with {@code format}; the returned function is what the benchmark times. */
+    static Serializer serializer(String format) {
+        return switch (format) {
+            case "json" -> jackson(Jackson2ObjectMapperBuilder.json().build());
+            case "cbor" -> jackson(Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+            case "smile" -> jackson(Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+            case "protobuf" -> ProtobufResponseConverter::encode;
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    @FunctionalInterface
+    interface Serializer {
+        byte[] serialize(Object value) throws JsonProcessingException;
+    }
+
+    private static Serializer jackson(ObjectMapper mapper) {
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper::writeValueAsBytes;
+    }
+
+    // Two thirds of the course completed, as a returning learner would see it.
+    private ProgressResponse progress(Course course) {
+        List<Subtopic> subtopics = catalog.subtopics(course);
+        List<CompletedItem> completed = new ArrayList<>();
+        LocalDateTime completedAt = LocalDateTime.of(2024, 1, 15, 9, 30);
+        for (int i = 0; i < subtopics.size() * 2 / 3; i++) {
+            Subtopic subtopic = subtopics.get(i);
+            completed.add(new CompletedItem(subtopic.getId(), subtopic.getTitle(), completedAt.plusMinutes(i * 7L)));
+        }
+        double percentage = Math.round(completed.size() * 10000.0 / subtopics.size()) / 100.0;
+        return new ProgressResponse(1L, course.getId(), course.getTitle(), subtopics.size(), completed.size(),
+                percentage, completed);
+    }
+}
@@ -0,0 +1,83 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.dto.SearchResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.service.CatalogSnapshotService;
+import com.courseplatform.service.CourseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CourseService.searchCourses}: match classification and snippet building over
+ * the courses the repository query returned. The SQL match itself is precomputed, so
+ * this isolates the Java side of search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"20"})
+    int courses;
+
+    @Param({"5"})
+    int topics;
+
+    @Param({"6"})
+    int subtopics;
+
+    @Param({"2000"})
+    int contentLength;
+
+    @Param({SyntheticCatalog.RARE_TERM, SyntheticCatalog.COMMON_TERM})
+    String query;
+
+    private CourseService courseService;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(courses, topics, subtopics, contentLength);
+        List<Course> matching = catalog.courses().stream()
+                .filter(course -> mentions(catalog, course, query))
+                .toList();
+
+        CourseRepository courseRepository = Stubs.repository(CourseRepository.class, Map.of(
+                "searchCourses", args -> matching
+        ));
+
+        CatalogSnapshotService snapshotService = new CatalogSnapshotService();
+        courseService = new CourseService();
+        Stubs.set(courseService, "courseRepository", courseRepository);
+        Stubs.set(courseService, "subtopicRepository", Stubs.repository(SubtopicRepository.class, Map.of()));
+        Stubs.set(courseService, "contentStore", Stubs.contentStore(catalog));
+        Stubs.set(courseService, "courseTreeLoader", Stubs.courseTreeLoader(catalog));
+        Stubs.set(courseService, "catalogSnapshotService", snapshotService);
+        Stubs.set(courseService, "transactionManager", Stubs.noOpTransactionManager());
+        Stubs.set(courseService, "singleFlight", Stubs.singleFlight());
+        Stubs.set(courseService, "lookupFilters", Stubs.lookupFilters());
+        Stubs.invoke(courseService, "init");
+        Stubs.requireWired(courseService);
+    }
+
+    @Benchmark
+    public SearchResponse searchCourses() {
+        return courseService.searchCourses(query);
+    }
+
+    private static boolean mentions(SyntheticCatalog catalog, Course course, String term) {
+        String lower = term.toLowerCase(Locale.ROOT);
+        return course.getTitle().toLowerCase(Locale.ROOT).contains(lower)
+                || catalog.subtopics(course).stream().anyMatch(subtopic ->
+                        subtopic.getTitle().toLowerCase(Locale.ROOT).contains(lower)
+                                || catalog.body(subtopic).toLowerCase(Locale.ROOT).contains(lower));
+    }
+}
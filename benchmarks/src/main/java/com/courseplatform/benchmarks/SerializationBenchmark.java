@@ -0,0 +1,51 @@
+package com.courseplatform.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization cost per wire format: JSON (the default), CBOR, Smile and the
+ * hand-written protobuf encoder. Sizes of the same payloads are printed by
+ * {@link PayloadSizes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20"})
+    int courses;
+
+    @Param({"5"})
+    int topics;
+
+    @Param({"6"})
+    int subtopics;
+
+    @Param({"2000"})
+    int contentLength;
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    String format;
+
+    @Param({"courses", "course", "search", "progress"})
+    String payload;
+
+    private Object value;
+    private ResponsePayloads.Serializer serializer;
+
+    @Setup
+    public void setUp() {
+        value = new ResponsePayloads(new SyntheticCatalog(courses, topics, subtopics, contentLength)).payload(payload);
+        serializer = ResponsePayloads.serializer(format);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return serializer.serialize(value);
+    }
+}
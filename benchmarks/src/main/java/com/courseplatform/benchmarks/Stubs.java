@@ -0,0 +1,206 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseSummary;
+import com.courseplatform.service.CatalogVersionService;
+import com.courseplatform.service.ContentStore;
+import com.courseplatform.service.CourseTreeLoader;
+import com.courseplatform.service.LookupFilters;
+import com.courseplatform.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wiring helpers for running services outside a Spring context: repositories become
+ * proxies answering only the methods a benchmark needs, and {@code @Autowired} fields
+ * are set reflectively.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+
+    static void set(Object target, String fieldName, Object value) {
+        try {
+            Field field = findField(target.getClass(), fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    static void invoke(Object target, String methodName) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(methodName);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot invoke " + methodName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Fails fast when a service grew a dependency the benchmark does not provide,
+     * instead of surfacing later as a NullPointerException inside a measurement.
+     */
+    static <T> T requireWired(T target) {
+        for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Autowired.class)) {
+                    try {
+                        field.setAccessible(true);
+                        if (field.get(target) == null) {
+                            throw new IllegalStateException(type.getSimpleName() + "." + field.getName() + " is not wired");
+                        }
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    // Benchmarks call from a single thread, so every call leads its own flight.
+    static SingleFlight singleFlight() {
+        SingleFlight singleFlight = new SingleFlight();
+        set(singleFlight, "meterRegistry", new SimpleMeterRegistry());
+        set(singleFlight, "defaultTimeoutMs", 5000L);
+        set(singleFlight, "timeouts", "");
+        invoke(singleFlight, "init");
+        return singleFlight;
+    }
+
+    // Never built, so every key "might" exist and lookups take the same path as before.
+    static LookupFilters lookupFilters() {
+        LookupFilters filters = new LookupFilters();
+        set(filters, "meterRegistry", new SimpleMeterRegistry());
+        return filters;
+    }
+
+    // Serves what the loader's joined queries would return, without the database.
+    static CourseTreeLoader courseTreeLoader(SyntheticCatalog catalog) {
+        return new CourseTreeLoader() {
+            @Override
+            public Optional<CourseDetailResponse> load(String courseId) {
+                return catalog.courses().stream()
+                        .filter(course -> course.getId().equals(courseId))
+                        .findFirst()
+                        .map(catalog::detail);
+            }
+
+            @Override
+            public List<CourseDetailResponse> loadAll() {
+                return catalog.courses().stream().map(catalog::detail).toList();
+            }
+
+            @Override
+            public List<CourseSummary> loadSummaries() {
+                return catalog.courses().stream().map(catalog::summary).toList();
+            }
+
+            @Override
+            public List<SubtopicRow> loadSubtopics(Collection<String> courseIds) {
+                return catalog.courses().stream()
+                        .filter(course -> courseIds.contains(course.getId()))
+                        .flatMap(course -> catalog.subtopicRows(course).stream())
+                        .toList();
+            }
+
+            @Override
+            public int countSubtopics(String courseId) {
+                return catalog.courses().stream()
+                        .filter(course -> course.getId().equals(courseId))
+                        .mapToInt(course -> catalog.subtopics(course).size())
+                        .sum();
+            }
+        };
+    }
+
+    // The synthetic catalog never changes, so it is always at its first version.
+    static CatalogVersionService catalogVersionService() {
+        return new CatalogVersionService() {
+            @Override
+            public long current() {
+                return 1;
+            }
+        };
+    }
+
+    // Bodies come from the synthetic catalog instead of segment files.
+    static ContentStore contentStore(SyntheticCatalog catalog) {
+        return new ContentStore() {
+            @Override
+            public String read(String hash) {
+                return catalog.body(hash);
+            }
+
+            @Override
+            public void prefetch(Collection<String> hashes) {
+            }
+        };
+    }
+
+    static AbstractPlatformTransactionManager noOpTransactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+
+    private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // keep looking in the superclass
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
@@ -0,0 +1,144 @@
+package com.courseplatform.benchmarks;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseSummary;
+import com.courseplatform.dto.SubtopicDetail;
+import com.courseplatform.dto.TopicDetail;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.service.ContentStore;
+import com.courseplatform.service.CourseTreeLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic catalog of {@code courses x topics x subtopics} entities whose
+ * subtopic bodies are {@code contentLength} characters of generated prose. Roughly one
+ * subtopic in ten mentions {@link #RARE_TERM}, every one mentions {@link #COMMON_TERM}.
+ */
+final class SyntheticCatalog {
+
+    static final String RARE_TERM = "velocity";
+    static final String COMMON_TERM = "energy";
+
+    private static final String[] WORDS = {
+            "motion", "force", "mass", "vector", "scalar", "time", "distance", "rate", "change",
+            "equation", "limit", "function", "derivative", "integral", "slope", "area", "curve",
+            "acceleration", "momentum", "graph", "value", "unit", "measure", "example", "formula"
+    };
+
+    private final List<Course> courses;
+    private final Map<String, String> bodies = new HashMap<>();
+
+    SyntheticCatalog(int courseCount, int topicsPerCourse, int subtopicsPerTopic, int contentLength) {
+        Random random = new Random(42);
+        courses = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            Course course = new Course();
+            course.setId("course-" + c);
+            course.setTitle("Course " + c);
+            course.setDescription("Synthetic course number " + c + " about " + WORDS[c % WORDS.length]);
+
+            for (int t = 0; t < topicsPerCourse; t++) {
+                Topic topic = new Topic();
+                topic.setId(course.getId() + "-topic-" + t);
+                topic.setTitle("Topic " + t + " " + WORDS[(c + t) % WORDS.length]);
+                topic.setPosition(t);
+                topic.setCourse(course);
+
+                for (int s = 0; s < subtopicsPerTopic; s++) {
+                    Subtopic subtopic = new Subtopic();
+                    subtopic.setId(topic.getId() + "-subtopic-" + s);
+                    subtopic.setTitle("Subtopic " + s + " " + WORDS[(c + t + s) % WORDS.length]);
+                    String body = content(random, contentLength, random.nextInt(10) == 0);
+                    subtopic.setContentHash(ContentStore.hash(body));
+                    subtopic.setContentLength(body.getBytes(StandardCharsets.UTF_8).length);
+                    bodies.put(subtopic.getContentHash(), body);
+                    subtopic.setPosition(s);
+                    subtopic.setTopic(topic);
+                    topic.getSubtopics().add(subtopic);
+                }
+                course.getTopics().add(topic);
+            }
+            courses.add(course);
+        }
+    }
+
+    List<Course> courses() {
+        return courses;
+    }
+
+    Course course(int index) {
+        return courses.get(index);
+    }
+
+    List<Subtopic> subtopics(Course course) {
+        List<Subtopic> subtopics = new ArrayList<>();
+        course.getTopics().forEach(topic -> subtopics.addAll(topic.getSubtopics()));
+        return subtopics;
+    }
+
+    String body(Subtopic subtopic) {
+        return bodies.get(subtopic.getContentHash());
+    }
+
+    String body(String hash) {
+        return bodies.get(hash);
+    }
+
+    /** The summary {@code CourseTreeLoader.loadSummaries} would return for {@code course}. */
+    CourseSummary summary(Course course) {
+        return new CourseSummary(course.getId(), course.getTitle(), course.getDescription(),
+                course.getTopics().size(), subtopics(course).size());
+    }
+
+    /** The rows {@code CourseTreeLoader.loadSubtopics} would return for {@code course}. */
+    List<CourseTreeLoader.SubtopicRow> subtopicRows(Course course) {
+        List<CourseTreeLoader.SubtopicRow> rows = new ArrayList<>();
+        for (Topic topic : course.getTopics()) {
+            for (Subtopic subtopic : topic.getSubtopics()) {
+                rows.add(new CourseTreeLoader.SubtopicRow(course.getId(), topic.getTitle(), subtopic.getId(),
+                        subtopic.getTitle(), subtopic.getContentHash()));
+            }
+        }
+        return rows;
+    }
+
+    /** The tree {@code CourseTreeLoader} would assemble for {@code course}. */
+    CourseDetailResponse detail(Course course) {
+        List<TopicDetail> topics = new ArrayList<>();
+        for (Topic topic : course.getTopics()) {
+            List<SubtopicDetail> subtopics = new ArrayList<>();
+            for (Subtopic subtopic : topic.getSubtopics()) {
+                subtopics.add(new SubtopicDetail(subtopic.getId(), subtopic.getTitle(), body(subtopic)));
+            }
+            topics.add(new TopicDetail(topic.getId(), topic.getTitle(), subtopics));
+        }
+        return new CourseDetailResponse(course.getId(), course.getTitle(), course.getDescription(), topics);
+    }
+
+    private static String content(Random random, int length, boolean mentionRareTerm) {
+        StringBuilder text = new StringBuilder(length + 16);
+        int rareAt = mentionRareTerm ? random.nextInt(Math.max(1, length)) : -1;
+        int commonAt = random.nextInt(Math.max(1, length));
+        while (text.length() < length) {
+            if (rareAt >= 0 && text.length() >= rareAt) {
+                text.append(RARE_TERM).append(' ');
+                rareAt = -1;
+            } else if (commonAt >= 0 && text.length() >= commonAt) {
+                text.append(COMMON_TERM).append(' ');
+                commonAt = -1;
+            } else {
+                text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.courseplatform.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application jar as a child process and waits until it serves the
+ * catalog. Rate limits are lifted because every synthetic user shares one address.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+
+    private AppProcess(Process process) {
+        this.process = process;
+    }
+
+    static AppProcess start(LoadTestConfig config, HttpClient client) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("java", "-jar", config.appJar.toString(),
+                "--auth.rate-limit.per-ip=100000000",
+                "--auth.rate-limit.per-email=100000000"));
+        command.addAll(config.appArgs);
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("loadtest-app-" + config.label + ".log").toFile());
+        Map<String, String> env = builder.environment();
+        env.putIfAbsent("SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/courseplatform");
+        env.putIfAbsent("SPRING_DATASOURCE_USERNAME", "postgres");
+        env.putIfAbsent("SPRING_DATASOURCE_PASSWORD", "postgres");
+        env.putIfAbsent("JWT_SECRET", "loadtest-secret-loadtest-secret-loadtest-secret-0123456789");
+
+        System.out.println("Starting " + String.join(" ", command));
+        AppProcess app = new AppProcess(builder.start());
+        app.awaitReady(config.baseUrl, client);
+        return app;
+    }
+
+    private void awaitReady(String baseUrl, HttpClient client) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/api/courses"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notYetListening) {
+                // keep polling until the deadline
+            }
+            Thread.sleep(250);
+        }
+        close();
+        throw new IllegalStateException("Application did not become ready within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
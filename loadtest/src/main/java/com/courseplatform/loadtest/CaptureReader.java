@@ -0,0 +1,115 @@
+package com.courseplatform.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads the request capture written by the application's {@code CaptureLog} (its class
+ * comment describes the format; change both together). A torn record at the end of a
+ * segment, left by a crash or by reading a segment that is still being written, ends
+ * that segment.
+ */
+final class CaptureReader {
+
+    private static final int MAGIC = 0x43505231; // "CPR1"
+    private static final int FORMAT = 1;
+    private static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS");
+
+    record CapturedRequest(long startMicros, String method, int status, long durationMicros, long principal,
+                           String route, String path, String query) {
+
+        /** Method and route pattern, the key results are grouped by. */
+        String endpoint() {
+            return method + " " + route;
+        }
+    }
+
+    private CaptureReader() {
+    }
+
+    /** Every request in a segment file, or in all segments of a directory, ordered by start time. */
+    static List<CapturedRequest> read(Path capture) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(capture)) {
+            try (Stream<Path> listing = Files.list(capture)) {
+                files = listing.filter(file -> file.getFileName().toString().matches("capture-\\d+\\.bin"))
+                        .sorted()
+                        .toList();
+            }
+        } else {
+            files = List.of(capture);
+        }
+
+        List<CapturedRequest> requests = new ArrayList<>();
+        for (Path file : files) {
+            readSegment(file, requests);
+        }
+        requests.sort(Comparator.comparingLong(CapturedRequest::startMicros));
+        return requests;
+    }
+
+    private static void readSegment(Path file, List<CapturedRequest> requests) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a request capture: " + file);
+            }
+            int format = in.readInt();
+            if (format != FORMAT) {
+                throw new IOException("Unsupported capture format " + format + ": " + file);
+            }
+            long start = in.readLong();
+            List<String> routes = new ArrayList<>();
+            while (true) {
+                try {
+                    start += unzigzag(readVarLong(in));
+                    String method = METHODS.get(in.readUnsignedByte());
+                    int status = (int) readVarLong(in);
+                    long duration = readVarLong(in);
+                    long principal = in.readLong();
+                    int routeRef = (int) readVarLong(in);
+                    if (routeRef == routes.size()) {
+                        routes.add(readString(in));
+                    }
+                    String route = routes.get(routeRef);
+                    String path = readString(in);
+                    String query = readString(in);
+                    requests.add(new CapturedRequest(start, method, status, duration, principal, route, path, query));
+                } catch (EOFException | IndexOutOfBoundsException end) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in request capture");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
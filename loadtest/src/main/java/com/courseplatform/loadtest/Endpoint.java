@@ -0,0 +1,30 @@
+package com.courseplatform.loadtest;
+
+enum Endpoint {
+    COURSES("courses", "GET /api/courses"),
+    COURSE_DETAIL("course", "GET /api/courses/{id}"),
+    SEARCH("search", "GET /api/search"),
+    COMPLETE("complete", "POST /api/subtopics/{id}/complete"),
+    LOGIN("login", "POST /api/auth/login");
+
+    private final String shortName;
+    private final String route;
+
+    Endpoint(String shortName, String route) {
+        this.shortName = shortName;
+        this.route = route;
+    }
+
+    String route() {
+        return route;
+    }
+
+    static Endpoint fromName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.shortName.equals(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint '" + name + "'");
+    }
+}
@@ -0,0 +1,105 @@
+package com.courseplatform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint percentiles and throughput, printed as a table and written as JSON so
+ * that two runs (for example before and after a change) can be diffed. All latencies
+ * are reported in milliseconds.
+ */
+final class LatencyReport {
+
+    private LatencyReport() {
+    }
+
+    static void print(LoadTestConfig config, Map<Endpoint, Workload.Stats> stats, PrintStream out) {
+        double seconds = config.duration.toMillis() / 1000.0;
+        out.printf("%nResults for '%s' (%.0f s measured, latency corrected for coordinated omission)%n",
+                config.label, seconds);
+        out.printf("%-34s %8s %7s %9s %9s %9s %9s %9s %12s%n",
+                "endpoint", "count", "errors", "req/s", "p50", "p99", "p99.9", "max", "svc p99");
+        stats.forEach((endpoint, stat) -> {
+            Histogram latency = stat.latency;
+            if (latency.getTotalCount() == 0) {
+                return;
+            }
+            out.printf("%-34s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    endpoint.route(),
+                    latency.getTotalCount(),
+                    stat.errors.sum(),
+                    latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()),
+                    millis(stat.serviceTime.getValueAtPercentile(99)));
+        });
+    }
+
+    static void write(LoadTestConfig config, Map<Endpoint, Workload.Stats> stats, ObjectMapper mapper) throws IOException {
+        double seconds = config.duration.toMillis() / 1000.0;
+        ObjectNode root = mapper.createObjectNode();
+        root.put("label", config.label);
+        root.put("finishedAt", Instant.now().toString());
+        root.put("baseUrl", config.baseUrl);
+        root.put("targetRate", config.rate);
+        root.put("durationSeconds", seconds);
+        root.put("users", config.users);
+
+        ObjectNode endpoints = root.putObject("endpoints");
+        stats.forEach((endpoint, stat) -> {
+            Histogram latency = stat.latency;
+            if (latency.getTotalCount() == 0) {
+                return;
+            }
+            ObjectNode node = endpoints.putObject(endpoint.route());
+            node.put("count", latency.getTotalCount());
+            node.put("errors", stat.errors.sum());
+            node.put("throughput", latency.getTotalCount() / seconds);
+            node.put("p50Ms", millis(latency.getValueAtPercentile(50)));
+            node.put("p99Ms", millis(latency.getValueAtPercentile(99)));
+            node.put("p999Ms", millis(latency.getValueAtPercentile(99.9)));
+            node.put("maxMs", millis(latency.getMaxValue()));
+            node.put("serviceP50Ms", millis(stat.serviceTime.getValueAtPercentile(50)));
+            node.put("serviceP99Ms", millis(stat.serviceTime.getValueAtPercentile(99)));
+
+            ObjectNode statuses = node.putObject("statuses");
+            new TreeMap<>(stat.statuses).forEach((status, count) ->
+                    statuses.put(status == 0 ? "failed" : status.toString(), count.sum()));
+        });
+
+        mapper.writerWithDefaultPrettyPrinter().writeValue(config.reportFile.toFile(), root);
+    }
+
+    /** Side-by-side throughput and tail latency of the same workload under different runs. */
+    static void compare(LoadTestConfig config, Map<String, Map<Endpoint, Workload.Stats>> runs, PrintStream out) {
+        double seconds = config.duration.toMillis() / 1000.0;
+        out.printf("%nComparison (req/s, p99 ms, p99.9 ms)%n");
+        out.printf("%-34s", "endpoint");
+        runs.keySet().forEach(run -> out.printf(" %28s", run));
+        out.println();
+        for (Endpoint endpoint : Endpoint.values()) {
+            out.printf("%-34s", endpoint.route());
+            runs.values().forEach(stats -> {
+                Histogram latency = stats.get(endpoint).latency;
+                out.printf(" %9.1f %8.2f %9.2f",
+                        latency.getTotalCount() / seconds,
+                        millis(latency.getValueAtPercentile(99)),
+                        millis(latency.getValueAtPercentile(99.9)));
+            });
+            out.println();
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.courseplatform.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Command line options of the load generator. Every option has a default, so a bare
+ * {@code java -jar loadtest.jar} runs a one-minute mixed workload against
+ * {@code http://localhost:8080}.
+ */
+final class LoadTestConfig {
+
+    String baseUrl = "http://localhost:8080";
+    Path appJar;
+    final List<String> appArgs = new ArrayList<>();
+    int users = 50;
+    double rate = 200;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+    List<String> searchTerms = List.of("velocity", "energy", "derivative", "force", "limit");
+    Duration completionBurstEvery = Duration.ofSeconds(20);
+    int completionBurstSize = 200;
+    Duration loginStormAt = Duration.ofSeconds(30);
+    int loginStormSize = 300;
+    Path reportFile = Path.of("loadtest-report.json");
+    String label = "run";
+    List<String> threadingModes = List.of();
+
+    LoadTestConfig() {
+        mix.put(Endpoint.COURSES, 45);
+        mix.put(Endpoint.COURSE_DETAIL, 20);
+        mix.put(Endpoint.SEARCH, 25);
+        mix.put(Endpoint.COMPLETE, 8);
+        mix.put(Endpoint.LOGIN, 2);
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                usage();
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--base-url" -> config.baseUrl = value.replaceAll("/+$", "");
+                case "--start-app" -> config.appJar = Path.of(value);
+                case "--app-arg" -> config.appArgs.add(value);
+                case "--users" -> config.users = Integer.parseInt(value);
+                case "--rate" -> config.rate = Double.parseDouble(value);
+                case "--duration" -> config.duration = duration(value);
+                case "--warmup" -> config.warmup = duration(value);
+                case "--mix" -> config.parseMix(value);
+                case "--search-terms" -> config.searchTerms = List.of(value.split(","));
+                case "--completion-burst-every" -> config.completionBurstEvery = duration(value);
+                case "--completion-burst-size" -> config.completionBurstSize = Integer.parseInt(value);
+                case "--login-storm-at" -> config.loginStormAt = duration(value);
+                case "--login-storm-size" -> config.loginStormSize = Integer.parseInt(value);
+                case "--report" -> config.reportFile = Path.of(value);
+                case "--label" -> config.label = value;
+                case "--threading-modes" -> config.threadingModes = config.parseThreadingModes(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        return config;
+    }
+
+    private void parseMix(String value) {
+        mix.clear();
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(Endpoint.fromName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+    }
+
+    private List<String> parseThreadingModes(String value) {
+        List<String> modes = List.of(value.split(","));
+        for (String mode : modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown threading mode '" + mode + "'");
+            }
+        }
+        return modes;
+    }
+
+    /**
+     * A copy of this configuration that starts the application in the given threading
+     * mode, with the mode appended to the label and the report file name.
+     */
+    LoadTestConfig forThreadingMode(String mode) {
+        LoadTestConfig copy = new LoadTestConfig();
+        copy.baseUrl = baseUrl;
+        copy.appJar = appJar;
+        copy.appArgs.addAll(appArgs);
+        copy.appArgs.add("--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+        copy.users = users;
+        copy.rate = rate;
+        copy.duration = duration;
+        copy.warmup = warmup;
+        copy.mix.clear();
+        copy.mix.putAll(mix);
+        copy.searchTerms = searchTerms;
+        copy.completionBurstEvery = completionBurstEvery;
+        copy.completionBurstSize = completionBurstSize;
+        copy.loginStormAt = loginStormAt;
+        copy.loginStormSize = loginStormSize;
+        String file = reportFile.getFileName().toString();
+        int dot = file.lastIndexOf('.');
+        String suffixed = dot > 0 ? file.substring(0, dot) + "-" + mode + file.substring(dot) : file + "-" + mode;
+        copy.reportFile = reportFile.resolveSibling(suffixed);
+        copy.label = label + "-" + mode;
+        return copy;
+    }
+
+    /** Accepts plain seconds ({@code 90}) or a unit suffix ({@code 500ms}, {@code 30s}, {@code 2m}). */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    static void usage() {
+        System.out.println("""
+                Usage: java -jar loadtest.jar [options]
+                       java -jar loadtest.jar replay --capture PATH [options]   (replay --help for its options)
+
+                  --base-url URL                  application under test (default http://localhost:8080)
+                  --start-app JAR                 start the application jar first; database settings are
+                                                  taken from SPRING_DATASOURCE_* / JWT_SECRET in the environment
+                  --app-arg ARG                   extra argument for the started application (repeatable)
+                  --users N                       synthetic users to register and enroll (default 50)
+                  --rate R                        steady arrival rate in requests/second (default 200)
+                  --duration D / --warmup D       measured and warm-up phases (default 60s / 10s)
+                  --mix a=w,b=w                   endpoint weights; endpoints: courses, course, search,
+                                                  complete, login (default courses=45,course=20,search=25,
+                                                  complete=8,login=2)
+                  --search-terms t1,t2            search terms drawn uniformly
+                  --completion-burst-every D      interval between bursts of subtopic completions (default 20s)
+                  --completion-burst-size N       completions per burst (default 200, 0 disables)
+                  --login-storm-at D              offset of a login storm into the measured phase (default 30s)
+                  --login-storm-size N            logins in the storm (default 300, 0 disables)
+                  --report FILE                   JSON report (default loadtest-report.json)
+                  --label NAME                    name recorded in the report
+                  --threading-modes m1,m2         with --start-app, run once per mode (platform, virtual),
+                                                  restarting the application in between, and compare them
+                """);
+    }
+}
@@ -0,0 +1,81 @@
+package com.courseplatform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point of the load generator: optionally starts the application, prepares
+ * synthetic users, runs the open-model workload and reports per-endpoint latency.
+ * {@code replay} as the first argument replays a request capture instead ({@link Replay}).
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("replay")) {
+            Replay.main(Arrays.copyOfRange(args, 1, args.length), client(), new ObjectMapper());
+            System.exit(0);
+        }
+
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            LoadTestConfig.usage();
+            System.exit(2);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        HttpClient client = client();
+
+        if (config.threadingModes.isEmpty()) {
+            run(config, client, mapper);
+        } else {
+            if (config.appJar == null) {
+                System.err.println("--threading-modes needs --start-app");
+                System.exit(2);
+            }
+            Map<String, Map<Endpoint, Workload.Stats>> results = new LinkedHashMap<>();
+            for (String mode : config.threadingModes) {
+                results.put(mode, run(config.forThreadingMode(mode), client, mapper));
+            }
+            LatencyReport.compare(config, results, System.out);
+        }
+        System.exit(0);
+    }
+
+    private static HttpClient client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    private static Map<Endpoint, Workload.Stats> run(LoadTestConfig config, HttpClient client, ObjectMapper mapper)
+            throws Exception {
+        AppProcess app = config.appJar != null ? AppProcess.start(config, client) : null;
+        try {
+            TestData data = TestData.prepare(config, client, mapper);
+            Map<Endpoint, Workload.Stats> stats = new Workload(config, client, data).run();
+            LatencyReport.print(config, stats, System.out);
+            LatencyReport.write(config, stats, mapper);
+            System.out.println("\nWrote " + config.reportFile.toAbsolutePath());
+            return stats;
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+}
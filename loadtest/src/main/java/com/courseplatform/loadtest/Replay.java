@@ -0,0 +1,184 @@
+package com.courseplatform.loadtest;
+
+import com.courseplatform.loadtest.CaptureReader.CapturedRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-issues a captured request stream against a test instance, keeping the captured
+ * spacing divided by {@code --speed}. Like {@link Workload} this is an open model:
+ * requests go out at their scheduled time however many are outstanding, and latency is
+ * measured from that time.
+ *
+ * <p>The capture holds no bodies or credentials, so each captured principal is played
+ * by a synthetic user (registered, logged in and enrolled in every course), logins use
+ * those users and registrations fresh emails. Logouts would revoke the synthetic users'
+ * tokens and admin endpoints need an admin, so both are skipped. Other writes are sent
+ * with an empty body.
+ */
+final class Replay {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Captured and replayed measurements for one endpoint (method and route pattern). */
+    static final class Stats {
+        final Histogram captured = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder statusChanges = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+    }
+
+    private final ReplayConfig config;
+    private final HttpClient client;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> users = new HashMap<>();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private TestData data;
+    private int nextLogin;
+    private int nextRegistration;
+
+    Replay(ReplayConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    static void main(String[] args, HttpClient client, ObjectMapper mapper) throws Exception {
+        ReplayConfig config;
+        try {
+            config = ReplayConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            ReplayConfig.usage();
+            System.exit(2);
+            return;
+        }
+
+        List<CapturedRequest> capture = CaptureReader.read(config.capture);
+        if (capture.isEmpty()) {
+            System.err.println("No captured requests in " + config.capture);
+            System.exit(1);
+        }
+        Replay replay = new Replay(config, client);
+        replay.prepare(capture, mapper);
+        Map<String, Stats> results = replay.run(capture);
+        ReplayReport.print(config, results, System.out);
+        ReplayReport.write(config, results, mapper);
+        System.out.println("\nWrote " + config.reportFile.toAbsolutePath());
+    }
+
+    private void prepare(List<CapturedRequest> capture, ObjectMapper mapper) throws IOException, InterruptedException {
+        for (CapturedRequest request : capture) {
+            if (request.principal() != 0) {
+                users.putIfAbsent(request.principal(), users.size());
+            }
+        }
+        LoadTestConfig setup = new LoadTestConfig();
+        setup.baseUrl = config.baseUrl;
+        // at least one user to log in as
+        setup.users = Math.max(1, users.size());
+        data = TestData.prepare(setup, client, mapper);
+    }
+
+    Map<String, Stats> run(List<CapturedRequest> capture) throws InterruptedException {
+        long firstMicros = capture.get(0).startMicros();
+        long spanMicros = capture.get(capture.size() - 1).startMicros() - firstMicros;
+        System.out.printf("Replaying %d requests captured over %ds at %.1fx%n", capture.size(),
+                TimeUnit.MICROSECONDS.toSeconds(spanMicros), config.speed);
+
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(capture.size());
+        long start = System.nanoTime();
+        for (CapturedRequest captured : capture) {
+            Stats target = stats.computeIfAbsent(captured.endpoint(), endpoint -> new Stats());
+            target.captured.recordValue(Math.min(captured.durationMicros(), HIGHEST_TRACKABLE_MICROS));
+            HttpRequest request = request(captured);
+            if (request == null) {
+                target.skipped.increment();
+                continue;
+            }
+
+            long intended = start + (long) ((captured.startMicros() - firstMicros) * 1_000 / config.speed);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        record(target, captured, response, failure, intended, sent, System.nanoTime());
+                        return null;
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .get(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            System.err.println("Some requests did not complete: " + e);
+        }
+        return new TreeMap<>(stats);
+    }
+
+    private static void record(Stats target, CapturedRequest captured, HttpResponse<Void> response, Throwable failure,
+                               long intended, long sent, long done) {
+        target.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(done - intended), HIGHEST_TRACKABLE_MICROS));
+        target.serviceTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(done - sent), HIGHEST_TRACKABLE_MICROS));
+        if (failure != null) {
+            target.errors.increment();
+            return;
+        }
+        if (response.statusCode() >= 500) {
+            target.errors.increment();
+        }
+        if (response.statusCode() != captured.status()) {
+            target.statusChanges.increment();
+        }
+    }
+
+    // Returns null for requests that are not replayed.
+    private HttpRequest request(CapturedRequest captured) {
+        String path = captured.path();
+        if (path.startsWith("/api/admin/") || path.startsWith("/api/auth/logout")) {
+            return null;
+        }
+        String url = config.baseUrl + path + (captured.query().isEmpty() ? "" : "?" + captured.query());
+        if (captured.method().equals("POST") && path.equals("/api/auth/login")) {
+            String email = data.emails.get(nextLogin++ % data.emails.size());
+            return TestData.post(url, TestData.credentials(email), null);
+        }
+        if (captured.method().equals("POST") && path.equals("/api/auth/register")) {
+            return TestData.post(url, TestData.credentials("replay-" + runId + "-" + nextRegistration++ + "@example.com"),
+                    null);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT);
+        Integer user = users.get(captured.principal());
+        if (user != null) {
+            builder.header("Authorization", "Bearer " + data.tokens.get(user));
+        }
+        return switch (captured.method()) {
+            case "POST", "PUT", "PATCH" -> builder.header("Content-Type", "application/json")
+                    .method(captured.method(), HttpRequest.BodyPublishers.ofString(""))
+                    .build();
+            default -> builder.method(captured.method(), HttpRequest.BodyPublishers.noBody()).build();
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.courseplatform.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Command line options of {@code replay}, which re-issues a request capture recorded by
+ * the application against a test instance.
+ */
+final class ReplayConfig {
+
+    String baseUrl = "http://localhost:8080";
+    Path capture;
+    double speed = 1;
+    Path reportFile = Path.of("replay-report.json");
+    String label = "replay";
+
+    static ReplayConfig parse(String[] args) {
+        ReplayConfig config = new ReplayConfig();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                usage();
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--base-url" -> config.baseUrl = value.replaceAll("/+$", "");
+                case "--capture" -> config.capture = Path.of(value);
+                case "--speed" -> config.speed = Double.parseDouble(value);
+                case "--report" -> config.reportFile = Path.of(value);
+                case "--label" -> config.label = value;
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (config.capture == null) {
+            throw new IllegalArgumentException("--capture is required");
+        }
+        if (config.speed <= 0) {
+            throw new IllegalArgumentException("--speed must be positive");
+        }
+        return config;
+    }
+
+    static void usage() {
+        System.out.println("""
+                Usage: java -jar loadtest.jar replay --capture PATH [options]
+
+                  --capture PATH                  capture directory (recorder.path) or a single segment file
+                  --base-url URL                  test instance to replay against (default http://localhost:8080)
+                  --speed X                       1 replays at the captured pace, 10 ten times faster (default 1)
+                  --report FILE                   JSON report (default replay-report.json)
+                  --label NAME                    name recorded in the report
+                """);
+    }
+}
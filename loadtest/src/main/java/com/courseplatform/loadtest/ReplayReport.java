@@ -0,0 +1,79 @@
+package com.courseplatform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Per-endpoint comparison of a replay with its capture. Captured durations were taken
+ * by the recorder inside the server and replayed ones by this client, so the difference
+ * includes the network and client overhead; compare two replays of one capture (for
+ * example before and after a change) to cancel it out. Latencies are in milliseconds.
+ */
+final class ReplayReport {
+
+    private ReplayReport() {
+    }
+
+    static void print(ReplayConfig config, Map<String, Replay.Stats> stats, PrintStream out) {
+        out.printf("%nReplay '%s' at %.1fx (replayed service time vs captured server time)%n", config.label, config.speed);
+        out.printf("%-44s %8s %7s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "skipped", "status", "errors",
+                "cap p50", "rep p50", "Δ p50", "cap p99", "rep p99", "Δ p99");
+        stats.forEach((endpoint, stat) -> {
+            Histogram replayed = stat.serviceTime;
+            if (replayed.getTotalCount() == 0 && stat.skipped.sum() == 0) {
+                return;
+            }
+            out.printf("%-44s %8d %7d %7d %7d %9.2f %9.2f %+9.2f %9.2f %9.2f %+9.2f%n",
+                    endpoint,
+                    replayed.getTotalCount(),
+                    stat.skipped.sum(),
+                    stat.statusChanges.sum(),
+                    stat.errors.sum(),
+                    millis(stat.captured.getValueAtPercentile(50)),
+                    millis(replayed.getValueAtPercentile(50)),
+                    millis(replayed.getValueAtPercentile(50) - stat.captured.getValueAtPercentile(50)),
+                    millis(stat.captured.getValueAtPercentile(99)),
+                    millis(replayed.getValueAtPercentile(99)),
+                    millis(replayed.getValueAtPercentile(99) - stat.captured.getValueAtPercentile(99)));
+        });
+    }
+
+    static void write(ReplayConfig config, Map<String, Replay.Stats> stats, ObjectMapper mapper) throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("label", config.label);
+        root.put("finishedAt", Instant.now().toString());
+        root.put("baseUrl", config.baseUrl);
+        root.put("capture", config.capture.toString());
+        root.put("speed", config.speed);
+
+        ObjectNode endpoints = root.putObject("endpoints");
+        stats.forEach((endpoint, stat) -> {
+            ObjectNode node = endpoints.putObject(endpoint);
+            node.put("count", stat.serviceTime.getTotalCount());
+            node.put("skipped", stat.skipped.sum());
+            node.put("statusChanges", stat.statusChanges.sum());
+            node.put("errors", stat.errors.sum());
+            node.put("capturedP50Ms", millis(stat.captured.getValueAtPercentile(50)));
+            node.put("capturedP99Ms", millis(stat.captured.getValueAtPercentile(99)));
+            node.put("serviceP50Ms", millis(stat.serviceTime.getValueAtPercentile(50)));
+            node.put("serviceP99Ms", millis(stat.serviceTime.getValueAtPercentile(99)));
+            node.put("p99Ms", millis(stat.latency.getValueAtPercentile(99)));
+            node.put("p999Ms", millis(stat.latency.getValueAtPercentile(99.9)));
+            node.put("deltaP50Ms", millis(stat.serviceTime.getValueAtPercentile(50) - stat.captured.getValueAtPercentile(50)));
+            node.put("deltaP99Ms", millis(stat.serviceTime.getValueAtPercentile(99) - stat.captured.getValueAtPercentile(99)));
+        });
+
+        mapper.writerWithDefaultPrettyPrinter().writeValue(config.reportFile.toFile(), root);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,140 @@
+package com.courseplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Catalog ids discovered from the running application plus the synthetic users
+ * registered for the run, each logged in and enrolled in every course so that any
+ * subtopic completion is valid for any user.
+ */
+final class TestData {
+
+    static final String PASSWORD = "loadtest-password";
+    private static final int SETUP_CONCURRENCY = 16;
+
+    final List<String> courseIds = new ArrayList<>();
+    final List<String> subtopicIds = new ArrayList<>();
+    final List<String> emails = new ArrayList<>();
+    final List<String> tokens = new ArrayList<>();
+
+    private TestData() {
+    }
+
+    static TestData prepare(LoadTestConfig config, HttpClient client, ObjectMapper mapper)
+            throws IOException, InterruptedException {
+        TestData data = new TestData();
+
+        JsonNode courses = getJson(client, mapper, config.baseUrl + "/api/courses").get("courses");
+        for (JsonNode course : courses) {
+            String courseId = course.get("id").asText();
+            data.courseIds.add(courseId);
+            JsonNode detail = getJson(client, mapper, config.baseUrl + "/api/courses/" + courseId);
+            for (JsonNode topic : detail.get("topics")) {
+                for (JsonNode subtopic : topic.get("subtopics")) {
+                    data.subtopicIds.add(subtopic.get("id").asText());
+                }
+            }
+        }
+        if (data.courseIds.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty; seed it before running the load test");
+        }
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < config.users; i++) {
+            data.emails.add("loadtest-" + runId + "-" + i + "@example.com");
+            data.tokens.add(null);
+        }
+
+        Semaphore permits = new Semaphore(SETUP_CONCURRENCY);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < config.users; i++) {
+            int index = i;
+            permits.acquire();
+            pending.add(CompletableFuture.runAsync(() -> {
+                try {
+                    data.setUpUser(config, client, mapper, index);
+                } catch (IOException | InterruptedException e) {
+                    throw new IllegalStateException("Setting up " + data.emails.get(index) + " failed", e);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+        System.out.printf("Prepared %d users, %d courses, %d subtopics%n",
+                data.emails.size(), data.courseIds.size(), data.subtopicIds.size());
+        return data;
+    }
+
+    static String credentials(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private void setUpUser(LoadTestConfig config, HttpClient client, ObjectMapper mapper, int index)
+            throws IOException, InterruptedException {
+        String email = emails.get(index);
+        HttpResponse<String> registered = send(client, post(config.baseUrl + "/api/auth/register", credentials(email), null));
+        expect(registered, 201, "register");
+
+        HttpResponse<String> login = send(client, post(config.baseUrl + "/api/auth/login", credentials(email), null));
+        expect(login, 200, "login");
+        String token = mapper.readTree(login.body()).get("token").asText();
+        tokens.set(index, token);
+
+        for (String courseId : courseIds) {
+            HttpResponse<String> enrolled = send(client,
+                    post(config.baseUrl + "/api/courses/" + courseId + "/enroll", "", token));
+            expect(enrolled, 201, "enroll");
+        }
+    }
+
+    static HttpRequest post(String url, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static JsonNode getJson(HttpClient client, ObjectMapper mapper, String url)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = send(client, HttpRequest.newBuilder(URI.create(url)).build());
+        expect(response, 200, "GET " + url);
+        return mapper.readTree(response.body());
+    }
+
+    // Setup must not fail because the application's load shedding turned a request away.
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request)
+            throws IOException, InterruptedException {
+        while (true) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 503) {
+                return response;
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(retryAfter * 1000);
+        }
+    }
+
+    private static void expect(HttpResponse<String> response, int status, String step) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(step + " returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.courseplatform.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model workload: every request has an intended start time fixed before the run
+ * begins (Poisson arrivals at the configured rate plus completion bursts and a login
+ * storm), and is sent at that time regardless of how many earlier requests are still
+ * outstanding. Latency is measured from the intended start time, so a stalled server
+ * is charged for the requests that queued up behind the stall instead of hiding them
+ * (coordinated omission). Service time, measured from the actual send, is recorded
+ * alongside for comparison.
+ */
+final class Workload {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long BURST_SPREAD_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long STORM_SPREAD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private record Arrival(long offsetNanos, Endpoint endpoint) {
+    }
+
+    /** Measurements for one endpoint, shared by the response callbacks. */
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final TestData data;
+    private final Random random = new Random(42);
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+
+    Workload(LoadTestConfig config, HttpClient client, TestData data) {
+        this.config = config;
+        this.client = client;
+        this.data = data;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    Map<Endpoint, Stats> run() throws InterruptedException {
+        List<Arrival> schedule = schedule();
+        long warmupNanos = config.warmup.toNanos();
+        System.out.printf("Scheduled %d requests over %ds (%ds warm-up)%n", schedule.size(),
+                config.warmup.plus(config.duration).toSeconds(), config.warmup.toSeconds());
+
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(schedule.size());
+        long start = System.nanoTime();
+        for (Arrival arrival : schedule) {
+            long intended = start + arrival.offsetNanos();
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = arrival.offsetNanos() >= warmupNanos;
+            Stats target = stats.get(arrival.endpoint());
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(request(arrival.endpoint()), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        long done = System.nanoTime();
+                        if (measured) {
+                            record(target, response, failure, intended, sent, done);
+                        }
+                        return null;
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .get(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            System.err.println("Some requests did not complete: " + e);
+        }
+        return stats;
+    }
+
+    private static void record(Stats target, HttpResponse<Void> response, Throwable failure,
+                               long intended, long sent, long done) {
+        target.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(done - intended), HIGHEST_TRACKABLE_MICROS));
+        target.serviceTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(done - sent), HIGHEST_TRACKABLE_MICROS));
+        if (failure != null) {
+            target.errors.increment();
+            target.statuses.computeIfAbsent(0, status -> new LongAdder()).increment();
+            return;
+        }
+        int status = response.statusCode();
+        target.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status >= 400) {
+            target.errors.increment();
+        }
+    }
+
+    private List<Arrival> schedule() {
+        long total = config.warmup.plus(config.duration).toNanos();
+        List<Arrival> arrivals = new ArrayList<>();
+
+        List<Endpoint> weighted = new ArrayList<>();
+        config.mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        if (config.rate > 0 && !weighted.isEmpty()) {
+            double meanGapNanos = 1e9 / config.rate;
+            double offset = 0;
+            while (true) {
+                offset += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+                if (offset >= total) {
+                    break;
+                }
+                arrivals.add(new Arrival((long) offset, weighted.get(random.nextInt(weighted.size()))));
+            }
+        }
+
+        long every = config.completionBurstEvery.toNanos();
+        if (config.completionBurstSize > 0 && every > 0) {
+            for (long burst = config.warmup.toNanos() + every; burst < total; burst += every) {
+                spread(arrivals, burst, BURST_SPREAD_NANOS, config.completionBurstSize, Endpoint.COMPLETE, total);
+            }
+        }
+
+        if (config.loginStormSize > 0) {
+            long storm = config.warmup.plus(config.loginStormAt).toNanos();
+            spread(arrivals, storm, STORM_SPREAD_NANOS, config.loginStormSize, Endpoint.LOGIN, total);
+        }
+
+        arrivals.sort(Comparator.comparingLong(Arrival::offsetNanos));
+        return arrivals;
+    }
+
+    private void spread(List<Arrival> arrivals, long from, long width, int count, Endpoint endpoint, long total) {
+        for (int i = 0; i < count; i++) {
+            long offset = from + (long) (random.nextDouble() * width);
+            if (offset < total) {
+                arrivals.add(new Arrival(offset, endpoint));
+            }
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        int user = random.nextInt(data.emails.size());
+        return switch (endpoint) {
+            case COURSES -> get("/api/courses");
+            case COURSE_DETAIL -> get("/api/courses/" + pick(data.courseIds));
+            case SEARCH -> get("/api/search?q=" + URLEncoder.encode(pick(config.searchTerms), StandardCharsets.UTF_8));
+            case COMPLETE -> TestData.post(config.baseUrl + "/api/subtopics/" + pick(data.subtopicIds) + "/complete",
+                    "", data.tokens.get(user));
+            case LOGIN -> TestData.post(config.baseUrl + "/api/auth/login",
+                    TestData.credentials(data.emails.get(user)), null);
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
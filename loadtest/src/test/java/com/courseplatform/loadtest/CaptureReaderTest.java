@@ -0,0 +1,125 @@
+package com.courseplatform.loadtest;
+
+import com.courseplatform.loadtest.CaptureReader.CapturedRequest;
+import com.courseplatform.web.CaptureLogs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaptureReaderTest {
+
+    private static final long START = 1_760_000_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatTheCaptureLogWrote() throws IOException {
+        CaptureLogs log = CaptureLogs.open(directory, 1 << 20, 16 << 20);
+        // records are appended as requests complete, so starts go backwards too
+        assertThat(log.append(START, "GET", 200, 1_500, 0, "/api/courses", "/api/courses", null)).isTrue();
+        assertThat(log.append(START - 250_000, "POST", 201, 48_000, 42, "/api/courses/{courseId}/enroll",
+                "/api/courses/c-1/enroll", "")).isTrue();
+        assertThat(log.append(START + 3_000_000_000L, "GET", 200, 900, -7, "/api/search", "/api/search",
+                "q=caf%C3%A9")).isTrue();
+        assertThat(log.append(START + 10, "GET", 304, 0, Long.MAX_VALUE, "/api/courses", "/api/courses",
+                "page=2")).isTrue();
+        assertThat(log.append(START + 20, "DELETE", 404, Long.MAX_VALUE, 1, "/api/subtopics/{id}",
+                "/api/subtopics/ü", null)).isTrue();
+        log.close();
+
+        List<CapturedRequest> requests = CaptureReader.read(directory);
+
+        assertThat(requests).containsExactly(
+                new CapturedRequest(START - 250_000, "POST", 201, 48_000, 42, "/api/courses/{courseId}/enroll",
+                        "/api/courses/c-1/enroll", ""),
+                new CapturedRequest(START, "GET", 200, 1_500, 0, "/api/courses", "/api/courses", ""),
+                new CapturedRequest(START + 10, "GET", 304, 0, Long.MAX_VALUE, "/api/courses", "/api/courses",
+                        "page=2"),
+                new CapturedRequest(START + 20, "DELETE", 404, Long.MAX_VALUE, 1, "/api/subtopics/{id}",
+                        "/api/subtopics/ü", ""),
+                new CapturedRequest(START + 3_000_000_000L, "GET", 200, 900, -7, "/api/search", "/api/search",
+                        "q=caf%C3%A9"));
+        assertThat(requests.get(0).endpoint()).isEqualTo("POST /api/courses/{courseId}/enroll");
+    }
+
+    @Test
+    void readsEverySegmentWithRoutesInternedPerSegment() throws IOException {
+        CaptureLogs log = CaptureLogs.open(directory, 64, 16 << 20);
+        for (int i = 0; i < 40; i++) {
+            String route = i % 2 == 0 ? "/api/courses" : "/api/search";
+            assertThat(log.append(START + i * 1_000L, "GET", 200, i, i, route, route, "n=" + i)).isTrue();
+        }
+        log.close();
+
+        assertThat(segments()).hasSizeGreaterThan(2);
+        List<CapturedRequest> requests = CaptureReader.read(directory);
+        assertThat(requests).hasSize(40);
+        for (int i = 0; i < 40; i++) {
+            CapturedRequest request = requests.get(i);
+            assertThat(request.startMicros()).isEqualTo(START + i * 1_000L);
+            assertThat(request.route()).isEqualTo(i % 2 == 0 ? "/api/courses" : "/api/search");
+            assertThat(request.query()).isEqualTo("n=" + i);
+        }
+    }
+
+    @Test
+    void readsASingleSegmentFile() throws IOException {
+        CaptureLogs log = CaptureLogs.open(directory, 1 << 20, 16 << 20);
+        log.append(START, "HEAD", 200, 5, 0, "/actuator/health", "/actuator/health", null);
+        log.close();
+
+        List<CapturedRequest> requests = CaptureReader.read(segments().get(0));
+
+        assertThat(requests).extracting(CapturedRequest::method).containsExactly("HEAD");
+    }
+
+    @Test
+    void stopsAtATornLastRecord() throws IOException {
+        CaptureLogs log = CaptureLogs.open(directory, 1 << 20, 16 << 20);
+        log.append(START, "GET", 200, 100, 0, "/api/courses", "/api/courses", null);
+        log.append(START + 1, "GET", 200, 100, 0, "/api/courses", "/api/courses", "torn=yes");
+        log.close();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThat(CaptureReader.read(segment)).extracting(CapturedRequest::startMicros).containsExactly(START);
+    }
+
+    @Test
+    void skipsMethodsOutsideTheFormat() throws IOException {
+        CaptureLogs log = CaptureLogs.open(directory, 1 << 20, 16 << 20);
+        assertThat(log.append(START, "TRACE", 405, 1, 0, "UNKNOWN", "/", null)).isFalse();
+        assertThat(log.append(START, "PATCH", 200, 1, 0, "/api/x", "/api/x", null)).isTrue();
+        log.close();
+
+        assertThat(CaptureReader.read(directory)).extracting(CapturedRequest::method).containsExactly("PATCH");
+    }
+
+    @Test
+    void rejectsFilesThatAreNotCaptures() throws IOException {
+        Path file = Files.write(directory.resolve("capture-000000.bin"), new byte[] {1, 2, 3, 4, 0, 0, 0, 1});
+
+        assertThatThrownBy(() -> CaptureReader.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a request capture");
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.courseplatform.web;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the application's package-private {@link CaptureLog} for the reader tests in
+ * {@code com.courseplatform.loadtest}, so they check the format against the writer
+ * itself rather than a copy of it.
+ */
+public final class CaptureLogs {
+
+    private final CaptureLog log;
+
+    private CaptureLogs(CaptureLog log) {
+        this.log = log;
+    }
+
+    public static CaptureLogs open(Path directory, long segmentBytes, long maxBytes) throws IOException {
+        return new CaptureLogs(new CaptureLog(directory, segmentBytes, maxBytes));
+    }
+
+    public boolean append(long startEpochMicros, String method, int status, long durationMicros, long principal,
+                          String route, String path, String query) {
+        return log.append(startEpochMicros, method, status, durationMicros, principal, route, path, query);
+    }
+
+    public void close() {
+        log.close();
+    }
+}
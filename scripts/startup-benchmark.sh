@@ -0,0 +1,60 @@
+#!/bin/sh
+# Measures time-to-first-request with and without the AppCDS archive.
+#
+# Run inside the fast-startup image (working directory /app), with the usual
+# database and JWT environment variables set:
+#
+#   docker run --rm --network host -e SPRING_DATASOURCE_URL=... -e JWT_SECRET=... \
+#       --entrypoint /app/startup-benchmark.sh course-platform:fast 5
+#
+# Each run starts the application, polls GET /api/courses until it answers 200 and
+# reports the elapsed wall-clock time, then stops the process.
+set -eu
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+URL="http://127.0.0.1:${PORT}/api/courses"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+run_once() {
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    java $1 -Dspring.aot.enabled=true @classpath.args com.courseplatform.CoursePlatformApplication \
+        > /tmp/startup-benchmark.log 2>&1 &
+    pid=$!
+
+    until wget -q -O /dev/null "$URL" 2>/dev/null; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited before serving a request, see /tmp/startup-benchmark.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(now_ms)
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( end - start ))
+}
+
+report() {
+    label="$1"
+    flags="$2"
+    results=""
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        results="$results $(run_once "$flags")"
+        i=$(( i + 1 ))
+    done
+    sorted=$(echo "$results" | tr ' ' '\n' | sed '/^$/d' | sort -n)
+    min=$(echo "$sorted" | head -n 1)
+    median=$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")
+    max=$(echo "$sorted" | tail -n 1)
+    printf '%-16s runs=%s min=%sms median=%sms max=%sms\n' "$label" "$RUNS" "$min" "$median" "$max"
+}
+
+report "without AppCDS" "-Xshare:off"
+report "with AppCDS" "-XX:SharedArchiveFile=app.jsa -Xshare:auto"
@@ -0,0 +1,25 @@
+package com.courseplatform.catalog;
+
+/**
+ * Published after catalog rows (courses, topics, subtopics) have been committed, so
+ * that anything derived from the catalog can be rebuilt or invalidated. Changes made
+ * by other instances are published too, when their notification arrives. The version
+ * is the catalog version the change produced.
+ */
+public class CatalogChangedEvent {
+    private final String source;
+    private final long version;
+
+    public CatalogChangedEvent(String source, long version) {
+        this.source = source;
+        this.version = version;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
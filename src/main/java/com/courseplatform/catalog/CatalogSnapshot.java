@@ -0,0 +1,274 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseSummary;
+import com.courseplatform.dto.SubtopicDetail;
+import com.courseplatform.dto.TopicDetail;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only view of a catalog snapshot file, memory-mapped so that course content
+ * stays in the page cache rather than on the heap. Only the course id index is
+ * materialised; everything else is decoded from the mapping on demand.
+ *
+ * <pre>
+ * header        int magic, int format, long catalogVersion,
+ *               int stringCount, int courseCount, int stringIndexOffset, int courseIndexOffset
+ * strings       stringCount x (int byteLength, UTF-8 bytes)
+ * string index  stringCount x int offset of the string's length prefix
+ * courses       per course: int titleRef, int descriptionRef, int topicCount, int subtopicCount,
+ *               then per topic: int idRef, int titleRef, int subtopicCount,
+ *               then per subtopic: int idRef, int titleRef, int contentRef
+ * course index  courseCount x (int idRef, int recordOffset), in catalog order
+ * </pre>
+ *
+ * String references are indexes into the string table; -1 stands for null.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x43505331; // "CPS1"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 32;
+    private static final int NULL_REF = -1;
+
+    private final ByteBuffer buffer;
+    private final long catalogVersion;
+    private final int stringIndexOffset;
+    private final Map<String, Integer> courseOffsets;
+
+    private CatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a catalog snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT) {
+            throw new IllegalArgumentException("Unsupported catalog snapshot format " + buffer.getInt(4));
+        }
+
+        this.catalogVersion = buffer.getLong(8);
+        int courseCount = buffer.getInt(20);
+        this.stringIndexOffset = buffer.getInt(24);
+        int courseIndexOffset = buffer.getInt(28);
+
+        Map<String, Integer> offsets = new LinkedHashMap<>(courseCount * 2);
+        for (int i = 0; i < courseCount; i++) {
+            int entry = courseIndexOffset + i * 8;
+            offsets.put(string(buffer.getInt(entry)), buffer.getInt(entry + 4));
+        }
+        this.courseOffsets = Collections.unmodifiableMap(offsets);
+    }
+
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot larger than 2 GB: " + path);
+            }
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(mapped);
+        }
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public int courseCount() {
+        return courseOffsets.size();
+    }
+
+    public List<CourseSummary> courseSummaries() {
+        List<CourseSummary> summaries = new ArrayList<>(courseOffsets.size());
+        for (Map.Entry<String, Integer> entry : courseOffsets.entrySet()) {
+            int offset = entry.getValue();
+            summaries.add(new CourseSummary(
+                    entry.getKey(),
+                    string(buffer.getInt(offset)),
+                    string(buffer.getInt(offset + 4)),
+                    buffer.getInt(offset + 8),
+                    buffer.getInt(offset + 12)
+            ));
+        }
+        return summaries;
+    }
+
+    public Optional<CourseDetailResponse> course(String courseId) {
+        Integer offset = courseOffsets.get(courseId);
+        if (offset == null) {
+            return Optional.empty();
+        }
+
+        int position = offset;
+        String title = string(buffer.getInt(position));
+        String description = string(buffer.getInt(position + 4));
+        int topicCount = buffer.getInt(position + 8);
+        position += 16;
+
+        List<TopicDetail> topics = new ArrayList<>(topicCount);
+        for (int t = 0; t < topicCount; t++) {
+            String topicId = string(buffer.getInt(position));
+            String topicTitle = string(buffer.getInt(position + 4));
+            int subtopicCount = buffer.getInt(position + 8);
+            position += 12;
+
+            List<SubtopicDetail> subtopics = new ArrayList<>(subtopicCount);
+            for (int s = 0; s < subtopicCount; s++) {
+                subtopics.add(new SubtopicDetail(
+                        string(buffer.getInt(position)),
+                        string(buffer.getInt(position + 4)),
+                        string(buffer.getInt(position + 8))
+                ));
+                position += 12;
+            }
+            topics.add(new TopicDetail(topicId, topicTitle, subtopics));
+        }
+
+        return Optional.of(new CourseDetailResponse(courseId, title, description, topics));
+    }
+
+    private String string(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int offset = buffer.getInt(stringIndexOffset + ref * 4);
+        int length = buffer.getInt(offset);
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the given courses to {@code target} atomically: the file is written and
+     * forced to a sibling temp file first, then moved over the target.
+     */
+    public static void write(Path target, long catalogVersion, List<CourseDetailResponse> courses) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+        try {
+            StringTable strings = new StringTable();
+            for (CourseDetailResponse course : courses) {
+                strings.add(course.getId(), course.getTitle(), course.getDescription());
+                for (TopicDetail topic : course.getTopics()) {
+                    strings.add(topic.getId(), topic.getTitle());
+                    for (SubtopicDetail subtopic : topic.getSubtopics()) {
+                        strings.add(subtopic.getId(), subtopic.getTitle(), subtopic.getContent());
+                    }
+                }
+            }
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CountingOutput out = new CountingOutput(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+                out.write(new byte[HEADER_SIZE]);
+
+                int[] stringOffsets = new int[strings.size()];
+                for (int i = 0; i < strings.size(); i++) {
+                    stringOffsets[i] = out.position();
+                    byte[] bytes = strings.get(i);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+
+                int stringIndexOffset = out.position();
+                for (int offset : stringOffsets) {
+                    out.writeInt(offset);
+                }
+
+                int[] courseOffsets = new int[courses.size()];
+                for (int c = 0; c < courses.size(); c++) {
+                    CourseDetailResponse course = courses.get(c);
+                    courseOffsets[c] = out.position();
+                    out.writeInt(strings.ref(course.getTitle()));
+                    out.writeInt(strings.ref(course.getDescription()));
+                    out.writeInt(course.getTopics().size());
+                    out.writeInt(course.getTopics().stream().mapToInt(topic -> topic.getSubtopics().size()).sum());
+                    for (TopicDetail topic : course.getTopics()) {
+                        out.writeInt(strings.ref(topic.getId()));
+                        out.writeInt(strings.ref(topic.getTitle()));
+                        out.writeInt(topic.getSubtopics().size());
+                        for (SubtopicDetail subtopic : topic.getSubtopics()) {
+                            out.writeInt(strings.ref(subtopic.getId()));
+                            out.writeInt(strings.ref(subtopic.getTitle()));
+                            out.writeInt(strings.ref(subtopic.getContent()));
+                        }
+                    }
+                }
+
+                int courseIndexOffset = out.position();
+                for (int c = 0; c < courses.size(); c++) {
+                    out.writeInt(strings.ref(courses.get(c).getId()));
+                    out.writeInt(courseOffsets[c]);
+                }
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC)
+                        .putInt(FORMAT)
+                        .putLong(catalogVersion)
+                        .putInt(strings.size())
+                        .putInt(courses.size())
+                        .putInt(stringIndexOffset)
+                        .putInt(courseIndexOffset)
+                        .flip();
+                channel.write(header, 0);
+                channel.force(true);
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+
+        private void add(String... values) {
+            for (String value : values) {
+                if (value != null && !refs.containsKey(value)) {
+                    refs.put(value, encoded.size());
+                    encoded.add(value.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        private int ref(String value) {
+            return value == null ? NULL_REF : refs.get(value);
+        }
+
+        private byte[] get(int ref) {
+            return encoded.get(ref);
+        }
+
+        private int size() {
+            return encoded.size();
+        }
+    }
+
+    private static final class CountingOutput extends DataOutputStream {
+        private CountingOutput(OutputStream out) {
+            super(out);
+        }
+
+        private int position() throws IOException {
+            if (written == Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot larger than 2 GB");
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.courseplatform.config;
+
+import com.courseplatform.metrics.StatementCountingDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on the service classes.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Static, so the post-processor is registered before the DataSource is created.
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource() {
+        return StatementCountingDataSource.postProcessor();
+    }
+}
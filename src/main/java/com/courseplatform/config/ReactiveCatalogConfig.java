@@ -0,0 +1,64 @@
+package com.courseplatform.config;
+
+import io.r2dbc.pool.PoolingConnectionFactoryProvider;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+
+/**
+ * R2DBC connection pool for the reactive catalog read path. Built here rather than by
+ * Spring Boot's R2DBC auto-configuration (which is excluded) so that it exists only when
+ * the reactive path is enabled and never contributes a second transaction manager next
+ * to the JPA one. The pool is deliberately not a bean: a ConnectionFactory bean makes
+ * Boot back off from creating the JDBC DataSource. The JDBC URL and credentials are
+ * reused unless an R2DBC URL is given.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true")
+public class ReactiveCatalogConfig {
+
+    @Value("${catalog.reactive.url:}")
+    private String url;
+
+    @Value("${spring.datasource.url}")
+    private String jdbcUrl;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${catalog.reactive.pool-size:10}")
+    private int poolSize;
+
+    private ConnectionFactory connectionFactory;
+
+    @Bean
+    public DatabaseClient catalogDatabaseClient() {
+        String r2dbcUrl = !url.isBlank() ? url : "r2dbc:pool:" + jdbcUrl.substring("jdbc:".length());
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.DRIVER, "pool")
+                .option(ConnectionFactoryOptions.PROTOCOL, "postgresql")
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .option(PoolingConnectionFactoryProvider.MAX_SIZE, poolSize)
+                .build();
+        connectionFactory = ConnectionFactories.get(options);
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @PreDestroy
+    void closePool() {
+        if (connectionFactory instanceof Disposable pool) {
+            pool.dispose();
+        }
+    }
+}
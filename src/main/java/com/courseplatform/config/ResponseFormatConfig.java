@@ -0,0 +1,48 @@
+package com.courseplatform.config;
+
+import com.courseplatform.web.ProtobufResponseConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response formats, picked by the Accept header: application/cbor,
+ * application/x-jackson-smile and application/x-protobuf. JSON stays first in the list,
+ * so clients sending no Accept header or *&#47;* still get JSON.
+ */
+@Configuration
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    // Boot's builder is a prototype bean: each getObject() is a fresh, unshared instance.
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    public ResponseFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders) {
+        this.objectMapperBuilders = objectMapperBuilders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring registers CBOR and Smile converters with a plain mapper; rebuild them from
+        // Boot's builder so they share the JSON settings (ISO-8601 dates among them).
+        converters.replaceAll(converter -> {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                return new MappingJackson2CborHttpMessageConverter(
+                        objectMapperBuilders.getObject().factory(new CBORFactory()).build());
+            }
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                return new MappingJackson2SmileHttpMessageConverter(
+                        objectMapperBuilders.getObject().factory(new SmileFactory()).build());
+            }
+            return converter;
+        });
+        converters.add(new ProtobufResponseConverter());
+    }
+}
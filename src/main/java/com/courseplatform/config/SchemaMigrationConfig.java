@@ -0,0 +1,37 @@
+package com.courseplatform.config;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The schema is owned by the Flyway migrations in {@code db/migration}; Hibernate only
+ * validates it. With {@code schema.search-trigram-indexes=true} the optional
+ * {@code db/search-trigram} location is added, which needs the pg_trgm extension.
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+    static final String SEARCH_TRIGRAM_LOCATION = "classpath:db/search-trigram";
+
+    @Value("${schema.search-trigram-indexes:false}")
+    private boolean searchTrigramIndexes;
+
+    @Bean
+    public FlywayConfigurationCustomizer searchTrigramLocation() {
+        return configuration -> {
+            if (!searchTrigramIndexes) {
+                return;
+            }
+            List<Location> locations = new ArrayList<>(Arrays.asList(configuration.getLocations()));
+            locations.add(new Location(SEARCH_TRIGRAM_LOCATION));
+            configuration.locations(locations.toArray(new Location[0]));
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.courseplatform.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Built here rather than from hibernate.javax.cache.uri: Hibernate turns that setting
+    // into a file: or jar: URL, and Caffeine only reads its config from file: and
+    // classpath: URIs, so inside the executable jar it silently fell back to defaults.
+    @Bean(destroyMethod = "close")
+    public CacheManager catalogCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("classpath:catalog-cache.conf"), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer catalogCacheManagerCustomizer(CacheManager catalogCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, catalogCacheManager);
+    }
+}
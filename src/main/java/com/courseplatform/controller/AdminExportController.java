@@ -0,0 +1,43 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.exception.BadRequestException;
+import com.courseplatform.service.ProgressExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@Tag(name = "Export", description = "Incremental export of enrollment and progress changes")
+public class AdminExportController {
+
+    static final String NEXT_WATERMARK = "X-Next-Watermark";
+
+    @Autowired
+    private ProgressExportService progressExportService;
+
+    @GetMapping("/progress")
+    @Operation(summary = "Stream enrollment and progress changes after a watermark as NDJSON or CSV (Requires ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt"))
+    public void exportProgress(@RequestParam(defaultValue = "0") long since,
+                               @RequestParam(defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        ProgressExportService.Format exportFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> ProgressExportService.Format.NDJSON;
+            case "csv" -> ProgressExportService.Format.CSV;
+            default -> throw new BadRequestException("Unknown export format '" + format + "', expected ndjson or csv");
+        };
+        response.setContentType(exportFormat == ProgressExportService.Format.CSV
+                ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader("Cache-Control", "no-store");
+        progressExportService.export(since, exportFormat,
+                next -> response.setHeader(NEXT_WATERMARK, Long.toString(next)), response.getOutputStream());
+    }
+}
@@ -0,0 +1,31 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.dto.BulkProvisionResponse;
+import com.courseplatform.service.BulkUserProvisioningService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@Tag(name = "Administration", description = "User provisioning for institutional customers")
+public class AdminUserController {
+
+    @Autowired
+    private BulkUserProvisioningService bulkUserProvisioningService;
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Provision users from an NDJSON stream or JSON array of {email, password} (Requires ADMIN)",
+            security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<BulkProvisionResponse> provisionUsers(HttpServletRequest httpRequest) throws IOException {
+        BulkProvisionResponse response = bulkUserProvisioningService.provision(httpRequest.getInputStream());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,9 +1,12 @@
 package com.courseplatform.controller;
 
 import com.courseplatform.dto.*;
+import com.courseplatform.exception.UnauthorizedException;
 import com.courseplatform.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -20,15 +23,39 @@ public class AuthController {
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
-    public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest request) {
-        RegisterResponse response = authService.register(request);
+    public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                     HttpServletRequest httpRequest) {
+        RegisterResponse response = authService.register(request, httpRequest.getRemoteAddr());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login and receive JWT token")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the current token (Requires Authentication)", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<Void> logout(HttpServletRequest httpRequest) {
+        authService.logout(bearerToken(httpRequest));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    @Operation(summary = "Revoke every token issued to the current user (Requires Authentication)", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<Void> logoutEverywhere(HttpServletRequest httpRequest) {
+        authService.logoutEverywhere(bearerToken(httpRequest));
+        return ResponseEntity.noContent().build();
+    }
+
+    private String bearerToken(HttpServletRequest httpRequest) {
+        String authHeader = httpRequest.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new UnauthorizedException("Missing bearer token");
+        }
+        return authHeader.substring(7);
+    }
 }
@@ -0,0 +1,32 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.service.CatalogChangesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/catalog")
+@Tag(name = "Courses", description = "Course browsing and enrollment")
+public class CatalogController {
+
+    static final String CATALOG_REVISION = "X-Catalog-Revision";
+
+    @Autowired
+    private CatalogChangesService catalogChangesService;
+
+    @GetMapping("/changes")
+    @Operation(summary = "Courses, topics and subtopics added, changed or removed after a catalog revision (Public)")
+    public void getChanges(@RequestParam(defaultValue = "0") long since, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader("Cache-Control", "no-cache");
+        catalogChangesService.writeChanges(since,
+                revision -> response.setHeader(CATALOG_REVISION, Long.toString(revision)), response.getOutputStream());
+    }
+}
@@ -2,17 +2,24 @@ package com.courseplatform.controller;
 
 import com.courseplatform.dto.*;
 import com.courseplatform.repository.UserRepository;
+import com.courseplatform.service.CourseBundleService;
 import com.courseplatform.service.CourseService;
 import com.courseplatform.service.EnrollmentService;
+import com.courseplatform.web.FileRegionWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/courses")
 @Tag(name = "Courses", description = "Course browsing and enrollment")
@@ -27,6 +34,12 @@ public class CourseController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CourseBundleService courseBundleService;
+
+    @Autowired
+    private FileRegionWriter fileRegionWriter;
+
     @GetMapping
     @Operation(summary = "List all courses (Public)")
     public ResponseEntity<CourseListResponse> getAllCourses() {
@@ -41,6 +54,17 @@ public class CourseController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{courseId}/bundle")
+    @Operation(summary = "Download the course outline and all subtopic content as a zip (supports Range and If-Range)")
+    public void getCourseBundle(@PathVariable String courseId, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        CourseBundleService.Bundle bundle = courseBundleService.getBundle(courseId);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + bundle.fileName() + "\"");
+        // the bundle is rebuilt when the catalog changes, so clients revalidate
+        fileRegionWriter.write(request, response, bundle.file(), 0, bundle.length(), bundle.etag(),
+                "application/zip", "no-cache");
+    }
+
     @PostMapping("/{courseId}/enroll")
     @Operation(summary = "Enroll in a course (Requires Authentication)", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<EnrollmentResponse> enrollInCourse(
@@ -0,0 +1,46 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseSummary;
+import com.courseplatform.dto.SearchResult;
+import com.courseplatform.service.ReactiveCatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming variants of the public catalog reads, selected with
+ * {@code Accept: application/x-ndjson} on the usual paths. Items are written one JSON
+ * document per line as they arrive from R2DBC; the next row is requested only after the
+ * previous item was written, and no servlet thread is held while waiting.
+ */
+@RestController
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true")
+@Tag(name = "Courses", description = "Course browsing and enrollment")
+public class ReactiveCatalogController {
+
+    @Autowired
+    private ReactiveCatalogService reactiveCatalogService;
+
+    @GetMapping(value = "/api/courses", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all courses as NDJSON (Public)")
+    public Flux<CourseSummary> streamCourses() {
+        return reactiveCatalogService.streamCourses();
+    }
+
+    @GetMapping(value = "/api/courses/{courseId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Get course by ID as NDJSON (Public)")
+    public Flux<CourseDetailResponse> getCourseById(@PathVariable String courseId) {
+        return reactiveCatalogService.getCourse(courseId).flux();
+    }
+
+    @GetMapping(value = "/api/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream search results as NDJSON (Public)")
+    public Flux<SearchResult> streamSearch(@RequestParam String q) {
+        return reactiveCatalogService.streamSearch(q);
+    }
+}
@@ -2,15 +2,22 @@ package com.courseplatform.controller;
 
 import com.courseplatform.dto.SubtopicCompleteResponse;
 import com.courseplatform.repository.UserRepository;
+import com.courseplatform.service.ContentStore;
+import com.courseplatform.service.CourseService;
 import com.courseplatform.service.EnrollmentService;
+import com.courseplatform.web.FileRegionWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/subtopics")
 @Tag(name = "Progress", description = "Track learning progress")
@@ -22,6 +29,23 @@ public class SubtopicController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private FileRegionWriter fileRegionWriter;
+
+    @GetMapping("/{subtopicId}/content")
+    @Operation(summary = "Get a subtopic's markdown body (supports Range and If-None-Match)")
+    public void getSubtopicContent(@PathVariable String subtopicId, HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        ContentStore.Region region = courseService.getSubtopicContent(subtopicId);
+        // content-addressed, so the hash is a strong validator; no-cache makes clients
+        // revalidate because the subtopic may point at a new body after a catalog change
+        fileRegionWriter.write(request, response, region.file(), region.offset(), region.length(),
+                "\"" + region.hash() + "\"", "text/markdown;charset=UTF-8", "no-cache");
+    }
+
     @PostMapping("/{subtopicId}/complete")
     @Operation(summary = "Mark subtopic as completed (Requires Authentication)", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<SubtopicCompleteResponse> markSubtopicComplete(
@@ -0,0 +1,76 @@
+package com.courseplatform.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently so that their read-only transactions keep going
+ * to the primary until the replicas have had time to catch up. Tracking is per instance
+ * and keyed by the authenticated principal; anonymous reads are never pinned.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    @Value("${datasource.replicas.read-your-writes-ms:10000}")
+    private long windowMs;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Records a write by the current user. Inside a transaction the window starts when
+     * it commits, since that is when replicas can begin to see the change.
+     */
+    public void recordWrite() {
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWrites.put(user, System.currentTimeMillis());
+                }
+            });
+        } else {
+            lastWrites.put(user, System.currentTimeMillis());
+        }
+    }
+
+    /** True when the current user wrote within the read-your-writes window. */
+    public boolean currentUserRequiresPrimary() {
+        if (lastWrites.isEmpty()) {
+            return false;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(user);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt <= windowMs;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void prune() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        lastWrites.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
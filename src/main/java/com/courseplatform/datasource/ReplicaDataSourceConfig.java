@@ -0,0 +1,67 @@
+package com.courseplatform.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource when {@code datasource.replicas.urls} is set:
+ * the primary pool is built from the usual {@code spring.datasource.*} properties, and
+ * the application-wide DataSource becomes a lazy proxy over the replica router.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${datasource.replicas.selection:round-robin}")
+    private String selection;
+
+    @Value("${datasource.replicas.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        ReplicaPool.Selection strategy = ReplicaPool.Selection.valueOf(selection.trim().toUpperCase().replace('-', '_'));
+        return new ReplicaPool(primaryDataSource, urls, username, password, strategy, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaPool, readYourWritesTracker));
+        // Known defaults, so the proxy never has to open a connection just to find them out.
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
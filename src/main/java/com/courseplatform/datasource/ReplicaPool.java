@@ -0,0 +1,203 @@
+package com.courseplatform.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas, their measured replication lag and the selection among the
+ * healthy ones. A replica is healthy when its last check succeeded and its lag was
+ * within {@code maxLagMs}; with no healthy replica, reads fall back to the primary.
+ */
+public class ReplicaPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    // Replay position relative to the primary's current WAL position captured just before,
+    // WAL the replica has received but not replayed, replay position relative to the primary
+    // position it was first seen behind, and the age of the last replayed commit. A server
+    // that is not in recovery (a standalone instance used for local testing) reports no lag.
+    private static final String REPLICA_LAG =
+            "SELECT pg_is_in_recovery(), " +
+            "pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()), " +
+            "pg_wal_lsn_diff(pg_last_wal_receive_lsn(), pg_last_wal_replay_lsn()), " +
+            "pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()), " +
+            "EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000";
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_BUSY
+    }
+
+    static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy;
+        volatile long lagMs = -1;
+        // primary position the replica was behind at the last check, and since when
+        private String awaitedLsn;
+        private long awaitedSince;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private int busyness() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Selection selection;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(HikariDataSource primary, List<String> urls, String username, String password,
+                       Selection selection, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.selection = selection;
+        this.maxLagMs = maxLagMs;
+
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Replicas are started by the first health check rather than at startup.
+            config.setInitializationFailTimeout(-1);
+            Replica replica = new Replica(config.getPoolName(), new HikariDataSource(config));
+            replicas.add(replica);
+
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMs)
+                    .description("Replication lag in milliseconds, -1 when unknown")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    /** A healthy replica to read from, or null to use the primary. */
+    Replica select() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        if (selection == Selection.LEAST_BUSY) {
+            return healthy.stream().min(Comparator.comparingInt(Replica::busyness)).orElseThrow();
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval-ms:2000}")
+    public void checkReplicas() {
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            result.next();
+            primaryLsn = result.getString(1);
+        } catch (SQLException e) {
+            // Without the primary's position lag cannot be judged; keep the last verdicts.
+            log.warn("Could not read the primary WAL position: {}", e.getMessage());
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(REPLICA_LAG)) {
+                statement.setString(1, primaryLsn);
+                statement.setString(2, replica.awaitedLsn != null ? replica.awaitedLsn : primaryLsn);
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    boolean inRecovery = result.getBoolean(1);
+                    double behindBytes = result.getDouble(2);
+                    double unreplayedBytes = result.getDouble(3);
+                    double behindAwaitedBytes = result.getDouble(4);
+                    double replayAgeMs = result.getDouble(5);
+                    boolean replayAgeKnown = !result.wasNull();
+                    replica.lagMs = lag(replica, primaryLsn, inRecovery, behindBytes, unreplayedBytes,
+                            behindAwaitedBytes, replayAgeKnown ? (long) replayAgeMs : -1);
+                }
+                replica.healthy = replica.lagMs <= maxLagMs;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                replica.lagMs = -1;
+                if (wasHealthy) {
+                    log.warn("Replica {} failed its health check: {}", replica.name, e.getMessage());
+                }
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Replica {} is now {} (lag {} ms)", replica.name,
+                        replica.healthy ? "in rotation" : "out of rotation", replica.lagMs);
+            }
+        }
+    }
+
+    /**
+     * The age of the last replayed commit only measures lag while the replica has WAL it
+     * has not replayed: on an idle primary it grows without bound, and the primary's WAL
+     * position still moves (checkpoints, vacuum) with no commit to replay. When everything
+     * received is replayed, the rest is in transit, and lag is the time since the replica
+     * was first seen behind a primary position it has still not reached, which a stalled
+     * stream makes grow and a streaming replica resets within one check.
+     */
+    private static long lag(Replica replica, String primaryLsn, boolean inRecovery, double behindBytes,
+                            double unreplayedBytes, double behindAwaitedBytes, long replayAgeMs) {
+        if (!inRecovery || behindBytes <= 0) {
+            replica.awaitedLsn = null;
+            return 0;
+        }
+        if (unreplayedBytes > 0) {
+            replica.awaitedLsn = null;
+            return replayAgeMs >= 0 ? replayAgeMs : Long.MAX_VALUE;
+        }
+        long now = System.currentTimeMillis();
+        if (replica.awaitedLsn != null && behindAwaitedBytes > 0) {
+            return now - replica.awaitedSince;
+        }
+        replica.awaitedLsn = primaryLsn;
+        replica.awaitedSince = now;
+        return 0;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
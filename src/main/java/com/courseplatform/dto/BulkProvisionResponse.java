@@ -0,0 +1,16 @@
+package com.courseplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkProvisionResponse {
+    private int received;
+    private int created;
+    private int alreadyRegistered;
+    private int duplicatesInRequest;
+    private int invalid;
+    private List<String> errors;
+}
@@ -1,6 +1,8 @@
 package com.courseplatform.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Table(name = "subtopics")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "catalog-subtopic")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,8 +22,17 @@ public class Subtopic {
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    // order within its topic, as given by the catalog file
+    @Column(nullable = false)
+    private int position;
+
+    // SHA-256 of the body in subtopic_content, served through ContentStore
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    // body length in UTF-8 bytes
+    @Column(name = "content_length", nullable = false)
+    private int contentLength;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "topic_id", nullable = false)
@@ -0,0 +1,30 @@
+package com.courseplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A subtopic body, stored once per distinct content and keyed by the SHA-256 of its
+ * UTF-8 bytes. Written only by the seeder; mapped so search queries can match bodies.
+ */
+@Entity
+@Table(name = "subtopic_content")
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtopicContent {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // UTF-8 bytes
+    @Column(nullable = false)
+    private Integer length;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+}
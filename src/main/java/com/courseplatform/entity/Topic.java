@@ -1,6 +1,8 @@
 package com.courseplatform.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "topics")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "catalog-topic")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,11 +24,17 @@ public class Topic {
     @Column(nullable = false)
     private String title;
 
+    // order within its course, as given by the catalog file
+    @Column(nullable = false)
+    private int position;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     @JsonIgnore
     private Course course;
 
     @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position, id")
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "catalog-topic-subtopics")
     private List<Subtopic> subtopics = new ArrayList<>();
 }
@@ -0,0 +1,21 @@
+package com.courseplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "user_token_epochs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTokenEpoch {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+}
@@ -1,7 +1,11 @@
 package com.courseplatform.exception;
 
+/**
+ * Thrown for unknown ids, often on behalf of clients probing for them, and always
+ * turned into a 404 by {@link GlobalExceptionHandler}, so no stack trace is captured.
+ */
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
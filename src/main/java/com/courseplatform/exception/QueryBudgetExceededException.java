@@ -0,0 +1,8 @@
+package com.courseplatform.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String endpoint, int statements, int budget) {
+        super(endpoint + " issued " + statements + " SQL statements, over its budget of " + budget);
+    }
+}
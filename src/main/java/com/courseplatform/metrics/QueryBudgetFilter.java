@@ -0,0 +1,181 @@
+package com.courseplatform.metrics;
+
+import com.courseplatform.dto.ErrorResponse;
+import com.courseplatform.exception.QueryBudgetExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records how many SQL statements each request issued as the {@code http.server.requests.sql}
+ * summary, tagged by method and route pattern, and enforces a per-endpoint query budget.
+ * Statements are counted at the JDBC level ({@link SqlStatementCounter}), so JPA and
+ * JdbcTemplate both count. An endpoint that goes over budget is logged, or with
+ * {@code sql.query-budget.fail=true} (meant for tests) answered with a 500, which is how
+ * an N+1 regression in a catalog read shows up before it ships.
+ *
+ * <p>To fail a request before its response is committed, the budget is checked when the
+ * response body is first opened, after the handler's queries and before any byte is
+ * written; the {@link QueryBudgetExceededException} thrown there goes to the exception
+ * handler. Responses without a body (or served by sendfile) are checked after the chain.
+ * Async requests (the streaming endpoints) run their statements on other threads and are
+ * neither recorded nor checked.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    // FileRegionWriter hands the body to Tomcat through this attribute
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${sql.query-budget.default:20}")
+    private int defaultBudget;
+
+    // comma-separated "METHOD /route/pattern=budget" entries
+    @Value("${sql.query-budget.endpoints:}")
+    private String endpointBudgets;
+
+    @Value("${sql.query-budget.fail:false}")
+    private boolean failOverBudget;
+
+    private final Map<String, Integer> budgets = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String entry : endpointBudgets.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        BudgetCheckingResponse checked = failOverBudget ? new BudgetCheckingResponse(request, response) : null;
+        sqlStatementCounter.start();
+        int statements;
+        try {
+            filterChain.doFilter(request, checked != null ? checked : response);
+        } finally {
+            statements = sqlStatementCounter.stop();
+        }
+        if (request.isAsyncStarted()) {
+            return;
+        }
+
+        String route = route(request);
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("SQL statements issued per request")
+                .tag("method", request.getMethod())
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(statements);
+
+        String endpoint = request.getMethod() + " " + route;
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (statements <= budget || (checked != null && checked.failed)) {
+            return;
+        }
+        if (checked == null) {
+            log.warn("{} issued {} SQL statements, over its budget of {}", endpoint, statements, budget);
+        } else if (response.isCommitted()) {
+            log.warn("{} issued {} SQL statements, over its budget of {}, after its response was committed",
+                    endpoint, statements, budget);
+        } else {
+            request.removeAttribute(SENDFILE_FILENAME);
+            response.reset();
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ErrorResponse error = new ErrorResponse("Internal Server Error",
+                    new QueryBudgetExceededException(endpoint, statements, budget).getMessage(), LocalDateTime.now());
+            objectMapper.writeValue(response.getOutputStream(), error);
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    /** Checks the budget once, when the body is first opened or the response flushed. */
+    private final class BudgetCheckingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private boolean checked;
+        private boolean failed;
+
+        private BudgetCheckingResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            check();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            check();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            check();
+            super.flushBuffer();
+        }
+
+        private void check() {
+            if (checked) {
+                return;
+            }
+            // the exception handler opens the body again to write the error
+            checked = true;
+            String endpoint = request.getMethod() + " " + route(request);
+            int statements = sqlStatementCounter.current();
+            int budget = budgets.getOrDefault(endpoint, defaultBudget);
+            if (statements > budget && !isCommitted()) {
+                failed = true;
+                throw new QueryBudgetExceededException(endpoint, statements, budget);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.courseplatform.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL behind the hot repository methods once the application
+ * is ready and warns about every sequential scan over a table with at least
+ * {@code schema.plan-check.min-rows} rows, which is how a missing or unusable index shows
+ * up before the table grows into it. Seq scans over small tables are the planner's
+ * right call and are not reported. Literal values stand in for the bind parameters.
+ */
+@Component
+public class QueryPlanCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanCheck.class);
+
+    private static final Map<String, String> CORE_QUERIES = new LinkedHashMap<>();
+
+    static {
+        CORE_QUERIES.put("enrollment by user and course",
+                "SELECT * FROM enrollments WHERE user_id = 0 AND course_id = ''");
+        CORE_QUERIES.put("progress by enrollment",
+                "SELECT * FROM subtopic_progress WHERE enrollment_id = 0");
+        CORE_QUERIES.put("progress by enrollment and subtopic",
+                "SELECT * FROM subtopic_progress WHERE enrollment_id = 0 AND subtopic_id = ''");
+        CORE_QUERIES.put("topics of course",
+                "SELECT * FROM topics WHERE course_id = ''");
+        CORE_QUERIES.put("subtopics of topic",
+                "SELECT * FROM subtopics WHERE topic_id = ''");
+        CORE_QUERIES.put("subtopic changes",
+                "SELECT * FROM subtopics WHERE revision > (SELECT version FROM catalog_version WHERE id = 1)");
+        CORE_QUERIES.put("user by email",
+                "SELECT * FROM users WHERE email = ''");
+        CORE_QUERIES.put("expired revocations",
+                "DELETE FROM revoked_tokens WHERE expires_at <= now() - interval '1 day'");
+        CORE_QUERIES.put("expired token epochs",
+                "DELETE FROM user_token_epochs WHERE not_before <= now() - interval '1 day'");
+    }
+
+    // Only served by index when the optional trigram indexes are installed.
+    private static final String SEARCH_QUERY =
+            "SELECT c.* FROM courses c WHERE lower(c.title) LIKE '%zzq%' OR lower(c.description) LIKE '%zzq%' " +
+            "OR c.id IN (SELECT t.course_id FROM topics t WHERE lower(t.title) LIKE '%zzq%') " +
+            "OR c.id IN (SELECT t.course_id FROM subtopics s JOIN topics t ON t.id = s.topic_id " +
+            "WHERE lower(s.title) LIKE '%zzq%' " +
+            "OR s.content_hash IN (SELECT b.hash FROM subtopic_content b WHERE lower(b.body) LIKE '%zzq%'))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${schema.plan-check.enabled:true}")
+    private boolean enabled;
+
+    @Value("${schema.plan-check.min-rows:10000}")
+    private long minRows;
+
+    @Value("${schema.plan-check.include-search:false}")
+    private boolean includeSearch;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, String> queries = new LinkedHashMap<>(CORE_QUERIES);
+        if (includeSearch) {
+            queries.put("search", SEARCH_QUERY);
+        }
+
+        int flagged = 0;
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            try {
+                flagged += check(query.getKey(), query.getValue());
+            } catch (DataAccessException e) {
+                log.warn("Could not EXPLAIN '{}': {}", query.getKey(), e.getMessage());
+            }
+        }
+        log.info("Query plan check: {} queries explained, {} sequential scans over large tables",
+                queries.size(), flagged);
+    }
+
+    private int check(String name, String sql) {
+        // EXPLAIN without ANALYZE only plans, so the DELETEs are not executed.
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+        List<String> scanned = new ArrayList<>();
+        try {
+            collectSeqScans(objectMapper.readTree(plan).path(0).path("Plan"), scanned);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not read the plan of '{}': {}", name, e.getMessage());
+            return 0;
+        }
+
+        int flagged = 0;
+        for (String table : scanned) {
+            long rows = estimatedRows(table);
+            if (rows >= minRows) {
+                flagged++;
+                meterRegistry.counter("schema.plan-check.seq-scans", "query", name, "table", table).increment();
+                log.warn("'{}' plans a sequential scan over {} (~{} rows); check its indexes: {}", name, table, rows, sql);
+            }
+        }
+        return flagged;
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> tables) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, tables);
+        }
+    }
+
+    private long estimatedRows(String table) {
+        List<Long> rows = jdbcTemplate.queryForList(
+                "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.courseplatform.metrics;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and
+ * {@link #stop()}. The counts come from {@link StatementCountingDataSource}, which wraps
+ * the application's DataSource, so JPA (including lazy collection loads) and JdbcTemplate
+ * statements are both seen; statements outside a started scope are not counted. R2DBC
+ * queries do not go through the DataSource and run on other threads, so they are not
+ * counted.
+ */
+@Component
+public class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /** The number of statements the current scope has issued so far. */
+    public int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    /** Ends the current scope and returns the number of statements it issued. */
+    public int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
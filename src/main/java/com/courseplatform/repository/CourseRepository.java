@@ -9,13 +9,16 @@ import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, String> {
-    @Query("SELECT DISTINCT c FROM Course c " +
-           "LEFT JOIN c.topics t " +
-           "LEFT JOIN t.subtopics s " +
+    // One predicate per table rather than OR across a join, so each subquery can use that
+    // table's trigram indexes (db/search-trigram) and no DISTINCT over the join is needed.
+    @Query("SELECT c FROM Course c " +
            "WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(t.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(s.content) LIKE LOWER(CONCAT('%', :query, '%'))")
+           "OR c.id IN (SELECT t.course.id FROM Topic t " +
+           "WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "OR c.id IN (SELECT s.topic.course.id FROM Subtopic s " +
+           "WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR s.contentHash IN (SELECT b.hash FROM SubtopicContent b " +
+           "WHERE LOWER(b.body) LIKE LOWER(CONCAT('%', :query, '%'))))")
     List<Course> searchCourses(@Param("query") String query);
 }
@@ -2,8 +2,16 @@ package com.courseplatform.repository;
 
 import com.courseplatform.entity.Subtopic;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface SubtopicRepository extends JpaRepository<Subtopic, String> {
+    // A query rather than findById, so the hash comes from the database and not from a
+    // second-level cache entry that a catalog change has not evicted yet.
+    @Query("SELECT s.contentHash FROM Subtopic s WHERE s.id = :id")
+    Optional<String> findContentHashById(@Param("id") String id);
 }
@@ -0,0 +1,18 @@
+package com.courseplatform.repository;
+
+import com.courseplatform.entity.UserTokenEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+
+@Repository
+public interface UserTokenEpochRepository extends JpaRepository<UserTokenEpoch, Long> {
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserTokenEpoch e WHERE e.notBefore <= :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
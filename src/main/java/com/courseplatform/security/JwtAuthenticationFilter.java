@@ -1,6 +1,8 @@
 package com.courseplatform.security;
 
 import com.courseplatform.service.UserDetailsServiceImpl;
+import com.courseplatform.web.RequestRecorder;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -32,9 +37,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
             try {
-                String email = jwtUtil.extractEmail(jwt);
+                Claims claims = jwtUtil.extractAllClaims(jwt);
+                String email = claims.getSubject();
 
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null
+                        && !tokenRevocationService.isRevoked(claims)) {
                     UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
                     if (jwtUtil.validateToken(jwt, email)) {
@@ -42,6 +49,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                 userDetails, null, userDetails.getAuthorities());
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
+                        request.setAttribute(RequestRecorder.PRINCIPAL_ATTRIBUTE, email);
                     }
                 }
             } catch (Exception e) {
@@ -0,0 +1,121 @@
+package com.courseplatform.security;
+
+import com.courseplatform.entity.RevokedToken;
+import com.courseplatform.entity.UserTokenEpoch;
+import com.courseplatform.repository.RevokedTokenRepository;
+import com.courseplatform.repository.UserTokenEpochRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps revocation state in memory so that {@link JwtAuthenticationFilter} can reject
+ * revoked tokens without a database round trip. Two structures are kept: the ids of
+ * individually revoked tokens (pruned once the token would have expired anyway) and a
+ * per-user "not before" instant set by sign-out-everywhere. Both are persisted and
+ * reloaded periodically so that other instances pick up revocations.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserTokenEpochRepository userTokenEpochRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    private final ConcurrentHashMap<String, Long> revokedTokenExpiry = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> notBeforeByUser = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gaugeMapSize("auth.revocation.tokens", Tags.empty(), revokedTokenExpiry);
+        meterRegistry.gaugeMapSize("auth.revocation.users", Tags.empty(), notBeforeByUser);
+    }
+
+    // Loaded once the context is up rather than during bean creation, so that a
+    // context refresh (e.g. the CDS training run) does not need a database.
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId != null && revokedTokenExpiry.containsKey(tokenId)) {
+            return true;
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        Long notBefore = userId != null ? notBeforeByUser.get(userId) : null;
+        return notBefore != null && jwtUtil.extractIssuedAtMillis(claims) < notBefore;
+    }
+
+    public void revokeToken(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            return;
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        Instant expiresAt = claims.getExpiration().toInstant();
+        revokedTokenRepository.save(new RevokedToken(tokenId, userId, expiresAt));
+        revokedTokenExpiry.put(tokenId, expiresAt.toEpochMilli());
+    }
+
+    public void revokeAllForUser(Long userId) {
+        Instant notBefore = Instant.now();
+        userTokenEpochRepository.save(new UserTokenEpoch(userId, notBefore));
+        notBeforeByUser.merge(userId, notBefore.toEpochMilli(), Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${auth.revocation.refresh-interval-ms:30000}")
+    public void reload() {
+        long now = System.currentTimeMillis();
+
+        revokedTokenRepository.findByExpiresAtAfter(Instant.ofEpochMilli(now))
+                .forEach(token -> revokedTokenExpiry.put(token.getTokenId(), token.getExpiresAt().toEpochMilli()));
+
+        userTokenEpochRepository.findAll()
+                .forEach(epoch -> notBeforeByUser.merge(
+                        epoch.getUserId(), epoch.getNotBefore().toEpochMilli(), Math::max));
+
+        prune(now);
+    }
+
+    private void prune(long now) {
+        revokedTokenExpiry.values().removeIf(expiresAt -> expiresAt <= now);
+        // A not-before older than the token lifetime cannot reject any live token.
+        notBeforeByUser.values().removeIf(notBefore -> notBefore <= now - expiration);
+
+        int deletedTokens = revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+        int deletedEpochs = userTokenEpochRepository.deleteOlderThan(Instant.ofEpochMilli(now - expiration));
+        if (deletedTokens > 0 || deletedEpochs > 0) {
+            log.debug("Pruned {} expired revoked tokens and {} stale user epochs", deletedTokens, deletedEpochs);
+        }
+    }
+}
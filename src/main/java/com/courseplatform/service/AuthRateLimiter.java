@@ -0,0 +1,79 @@
+package com.courseplatform.service;
+
+import com.courseplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window attempt counters keyed by email and by client IP, checked before any
+ * bcrypt work is queued.
+ */
+@Service
+public class AuthRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.rate-limit.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${auth.rate-limit.per-email:10}")
+    private int perEmailLimit;
+
+    @Value("${auth.rate-limit.per-ip:60}")
+    private int perIpLimit;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gaugeMapSize("auth.rate-limit.keys", Tags.empty(), windows);
+    }
+
+    public void checkEmail(String email) {
+        check("email:" + email.toLowerCase(Locale.ROOT), perEmailLimit);
+    }
+
+    public void checkIp(String ip) {
+        if (ip != null) {
+            check("ip:" + ip, perIpLimit);
+        }
+    }
+
+    private void check(String key, int limit) {
+        long now = System.currentTimeMillis();
+        long windowMillis = windowSeconds * 1000;
+        Window window = windows.compute(key, (k, existing) ->
+                existing == null || now - existing.start >= windowMillis ? new Window(now) : existing);
+
+        if (window.count.incrementAndGet() > limit) {
+            meterRegistry.counter("auth.rate-limit.rejected", "key", key.substring(0, key.indexOf(':'))).increment();
+            long retryAfter = Math.max(1, (window.start + windowMillis - now + 999) / 1000);
+            throw new TooManyRequestsException("Too many attempts, please retry later", retryAfter);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.prune-interval-ms:60000}")
+    public void pruneExpiredWindows() {
+        long cutoff = System.currentTimeMillis() - windowSeconds * 1000;
+        windows.values().removeIf(window -> window.start < cutoff);
+    }
+
+    private static final class Window {
+        private final long start;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -6,36 +6,60 @@ import com.courseplatform.exception.ConflictException;
 import com.courseplatform.exception.UnauthorizedException;
 import com.courseplatform.repository.UserRepository;
 import com.courseplatform.security.JwtUtil;
+import com.courseplatform.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed(value = "service.calls", percentiles = {0.5, 0.99})
 public class AuthService {
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private LookupFilters lookupFilters;
+
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public RegisterResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+    public RegisterResponse register(RegisterRequest request, String clientIp) {
+        authRateLimiter.checkIp(clientIp);
+        authRateLimiter.checkEmail(request.getEmail());
+
+        // The filter only lets new emails skip the lookup; the unique constraint still
+        // catches one registered meanwhile or on another instance.
+        if (lookupFilters.mightContain(LookupFilters.Key.EMAIL, request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             throw new ConflictException("Email already exists");
         }
 
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
-        user = userRepository.save(user);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Email already exists");
+        }
+        lookupFilters.add(LookupFilters.Key.EMAIL, user.getEmail());
 
         return new RegisterResponse(
             user.getId(),
@@ -44,16 +68,37 @@ public class AuthService {
         );
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        authRateLimiter.checkIp(clientIp);
+        authRateLimiter.checkEmail(request.getEmail());
+
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UnauthorizedException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new UnauthorizedException("Invalid email or password");
         }
 
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            user = userRepository.save(user);
+        }
+
         String token = jwtUtil.generateToken(user.getEmail(), user.getId());
 
         return new AuthResponse(token, user.getEmail(), expiration / 1000);
     }
+
+    public void logout(String token) {
+        tokenRevocationService.revokeToken(jwtUtil.extractAllClaims(token));
+    }
+
+    public void logoutEverywhere(String token) {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        Long userId = claims.get("userId", Long.class);
+        if (userId == null) {
+            throw new UnauthorizedException("Token does not identify a user");
+        }
+        tokenRevocationService.revokeAllForUser(userId);
+    }
 }
@@ -0,0 +1,164 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.BulkProvisionResponse;
+import com.courseplatform.dto.RegisterRequest;
+import com.courseplatform.entity.User;
+import com.courseplatform.repository.UserRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Streams user records from the request body and provisions them chunk by chunk:
+ * one IN lookup for existing emails, parallel bcrypt, then a batched insert.
+ */
+@Service
+public class BulkUserProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkUserProvisioningService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LookupFilters lookupFilters;
+
+    @Value("${bulk.users.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkProvisionResponse provision(InputStream body) throws IOException {
+        Stats stats = new Stats();
+        Set<String> seenEmails = new HashSet<>();
+        List<RegisterRequest> chunk = new ArrayList<>(chunkSize);
+        long started = System.nanoTime();
+
+        try (MappingIterator<RegisterRequest> records = objectMapper.readerFor(RegisterRequest.class).readValues(body)) {
+            while (records.hasNextValue()) {
+                RegisterRequest record = records.nextValue();
+                stats.received++;
+
+                Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(record);
+                if (!violations.isEmpty()) {
+                    stats.invalid++;
+                    stats.error("Record " + stats.received + ": " + violations.iterator().next().getMessage());
+                    continue;
+                }
+                if (!seenEmails.add(record.getEmail())) {
+                    stats.duplicatesInRequest++;
+                    continue;
+                }
+
+                chunk.add(record);
+                if (chunk.size() >= chunkSize) {
+                    provisionChunk(chunk, stats);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            provisionChunk(chunk, stats);
+        }
+
+        log.info("Bulk provisioning: received={} created={} existing={} duplicates={} invalid={} in {} ms",
+                stats.received, stats.created, stats.alreadyRegistered, stats.duplicatesInRequest, stats.invalid,
+                (System.nanoTime() - started) / 1_000_000);
+
+        return new BulkProvisionResponse(
+                stats.received,
+                stats.created,
+                stats.alreadyRegistered,
+                stats.duplicatesInRequest,
+                stats.invalid,
+                stats.errors
+        );
+    }
+
+    private void provisionChunk(List<RegisterRequest> chunk, Stats stats) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                chunk.stream().map(RegisterRequest::getEmail).toList()));
+
+        // created or already there, every email of the chunk is registered now
+        chunk.forEach(record -> lookupFilters.add(LookupFilters.Key.EMAIL, record.getEmail()));
+        List<RegisterRequest> fresh = chunk.stream()
+                .filter(record -> !existing.contains(record.getEmail()))
+                .toList();
+        stats.alreadyRegistered += chunk.size() - fresh.size();
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordHashingService.encodeAll(fresh.stream().map(RegisterRequest::getPassword).toList());
+        List<User> users = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            User user = new User();
+            user.setEmail(fresh.get(i).getEmail());
+            user.setPassword(hashes.get(i));
+            users.add(user);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> userRepository.saveAll(users));
+            stats.created += users.size();
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these emails between the lookup and the insert;
+            // fall back to row-at-a-time so the rest of the chunk still goes in.
+            for (User user : users) {
+                try {
+                    transaction.executeWithoutResult(status -> userRepository.save(copyOf(user)));
+                    stats.created++;
+                } catch (DataIntegrityViolationException conflict) {
+                    stats.alreadyRegistered++;
+                }
+            }
+        }
+    }
+
+    private User copyOf(User user) {
+        User copy = new User();
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        return copy;
+    }
+
+    private static final class Stats {
+        private int received;
+        private int created;
+        private int alreadyRegistered;
+        private int duplicatesInRequest;
+        private int invalid;
+        private final List<String> errors = new ArrayList<>();
+
+        private void error(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.courseplatform.service;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Clears the catalog regions of the second-level cache when the catalog changes. The
+ * seeder writes with plain JDBC, which Hibernate never sees, so without this the cache
+ * would keep serving the previous catalog. Runs before the other listeners, so none of
+ * them can load a stale entity; the snapshot rebuild itself reads through the JDBC
+ * {@link CourseTreeLoader} and never touches the cache.
+ */
+@Component
+public class CatalogCacheEvictor {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Course.class);
+        cache.evictEntityData(Topic.class);
+        cache.evictEntityData(Subtopic.class);
+        cache.evictCollectionData(Course.class.getName() + ".topics");
+        cache.evictCollectionData(Topic.class.getName() + ".subtopics");
+    }
+}
@@ -0,0 +1,209 @@
+package com.courseplatform.service;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps this instance's catalog-derived state (snapshot, second-level cache) in step
+ * with catalog writes made by other instances. A dedicated connection to the primary,
+ * outside the pool, {@code LISTEN}s on {@link CatalogVersionService#CHANNEL} and turns
+ * each newer version into a local {@link CatalogChangedEvent}. The committed version is
+ * also compared with the applied one at startup, after every reconnect and whenever a
+ * poll interval passes without notifications, so a notification missed while
+ * disconnected is caught up on.
+ */
+@Component
+public class CatalogChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeListener.class);
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog.change-notifications.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.change-notifications.poll-interval-ms:10000}")
+    private int pollIntervalMs;
+
+    @Value("${catalog.change-notifications.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    // Catalog version this instance's derived state reflects; -1 until known.
+    private final AtomicLong appliedVersion = new AtomicLong(-1);
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("catalog.version.applied", appliedVersion);
+    }
+
+    // After the seeder (a CommandLineRunner) has applied and announced its changes.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        long applied = snapshot != null ? snapshot.getCatalogVersion() : -1;
+        long committed = catalogVersionService.current();
+        if (committed < applied) {
+            log.warn("Catalog snapshot version {} is ahead of the database's {}, discarding it", applied, committed);
+            catalogSnapshotService.discard();
+        }
+        if (committed != applied) {
+            log.info("Catalog version {} differs from the applied version {}, refreshing", committed, applied);
+            apply(committed, "startup");
+        }
+        appliedVersion.set(committed);
+
+        if (!enabled) {
+            log.info("Catalog change notifications disabled");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "catalog-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        appliedVersion.accumulateAndGet(event.getVersion(), Math::max);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeConnection();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        while (running) {
+            try {
+                connect();
+                backoffMs = 1000;
+                catchUp("reconnect");
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollIntervalMs);
+                    if (notifications == null || notifications.length == 0) {
+                        catchUp("poll");
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                meterRegistry.counter("catalog.change-notifications.reconnects").increment();
+                log.warn("Catalog change listener lost its connection, retrying in {} ms: {}", backoffMs, e.getMessage());
+                closeConnection();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private void connect() throws SQLException {
+        Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + CatalogVersionService.CHANNEL);
+        }
+        connection = listening;
+    }
+
+    // payload: "<version> <instance id> <source>"
+    private void handle(String payload) {
+        String[] parts = payload.split(" ", 3);
+        long version = Long.parseLong(parts[0]);
+        if (parts.length > 1 && parts[1].equals(catalogVersionService.getInstanceId())) {
+            // written here; the writer already published the event locally
+            meterRegistry.counter("catalog.change-notifications", "outcome", "own").increment();
+            return;
+        }
+        if (version <= appliedVersion.get()) {
+            meterRegistry.counter("catalog.change-notifications", "outcome", "stale").increment();
+            return;
+        }
+        meterRegistry.counter("catalog.change-notifications", "outcome", "applied").increment();
+        apply(version, parts.length > 2 ? parts[2] : "notification");
+    }
+
+    // Runs on the listening connection, which doubles as its keepalive: a connection that
+    // died silently fails here rather than just never delivering notifications again.
+    private void catchUp(String reason) throws SQLException {
+        long committed = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT version FROM catalog_version WHERE id = 1")) {
+            if (result.next()) {
+                committed = result.getLong(1);
+            }
+        }
+        if (committed > appliedVersion.get()) {
+            log.info("Catalog version {} found on {}, refreshing", committed, reason);
+            apply(committed, reason);
+        }
+    }
+
+    private void apply(long version, String source) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(source, version));
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Closing the catalog listener connection failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.courseplatform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Catalog changes after a revision, for clients that keep a copy of the catalog. Every
+ * course, topic and subtopic row carries the catalog version that last wrote it and
+ * deleted rows leave a tombstone (migration V6), so a sync reads only the rows newer than
+ * the client's revision through the {@code revision} indexes.
+ *
+ * <p>Each transaction takes one catalog version and holds its row lock until commit, so
+ * versions commit in order: within one snapshot, the version read is the highest revision
+ * any visible row carries and no lower one can still appear. It is returned as the
+ * client's next revision. Tombstones older than {@code catalog.changes.tombstone-retention-days}
+ * are pruned; a client whose revision predates a pruned tombstone, or is newer than the
+ * catalog (a restored database), gets a reset: the whole catalog, to replace its copy.
+ */
+@Service
+public class CatalogChangesService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangesService.class);
+
+    private static final String VERSION =
+            "SELECT version, tombstones_pruned_through FROM catalog_version WHERE id = 1";
+
+    private static final String COURSES =
+            "SELECT id, title, description FROM courses WHERE revision > ? ORDER BY id";
+
+    private static final String TOPICS =
+            "SELECT id, course_id, title, position FROM topics WHERE revision > ? ORDER BY id";
+
+    private static final String SUBTOPICS =
+            "SELECT id, topic_id, title, position, content_hash, content_length FROM subtopics " +
+            "WHERE revision > ? ORDER BY id";
+
+    private static final String TOMBSTONES =
+            "SELECT kind, id FROM catalog_tombstones WHERE revision > ? ORDER BY kind, id";
+
+    private static final String PRUNE_TOMBSTONES =
+            "WITH pruned AS (DELETE FROM catalog_tombstones WHERE deleted_at < ? RETURNING revision) " +
+            "UPDATE catalog_version SET tombstones_pruned_through = " +
+            "GREATEST(tombstones_pruned_through, (SELECT MAX(revision) FROM pruned)) " +
+            "WHERE id = 1 AND EXISTS (SELECT 1 FROM pruned)";
+
+    // tombstone kinds and the names of their arrays under "removed"
+    private static final Map<String, String> REMOVED = Map.of("course", "courses", "topic", "topics",
+            "subtopic", "subtopics");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog.changes.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${catalog.changes.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    private TransactionTemplate snapshotTransaction;
+
+    @PostConstruct
+    void init() {
+        // one snapshot for the version and the rows; read-only, so a replica may serve it
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Writes the changes after {@code since} to {@code out} as one JSON object.
+     * {@code revision} receives the client's next revision before the first byte is written,
+     * so it can go into a response header.
+     */
+    public void writeChanges(long since, LongConsumer revision, OutputStream out) {
+        long started = System.nanoTime();
+        String result = snapshotTransaction.execute(status -> {
+            List<long[]> versions = jdbcTemplate.query(VERSION,
+                    (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)});
+            long current = versions.isEmpty() ? 0 : versions.get(0)[0];
+            long prunedThrough = versions.isEmpty() ? 0 : versions.get(0)[1];
+            boolean reset = since < prunedThrough || since > current;
+            long after = reset ? 0 : Math.max(0, since);
+            revision.accept(current);
+
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                json.writeNumberField("revision", current);
+                json.writeBooleanField("reset", reset);
+                if (after < current) {
+                    writeCourses(json, after);
+                    writeTopics(json, after);
+                    writeSubtopics(json, after);
+                    if (!reset) {
+                        writeRemoved(json, after);
+                    }
+                }
+                json.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write the catalog changes", e);
+            }
+            return reset ? "reset" : after < current ? "delta" : "current";
+        });
+
+        meterRegistry.counter("catalog.changes.requests", "result", result).increment();
+        log.debug("Catalog changes after {} ({}) in {} ms", since, result, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.changes.prune-interval-ms:3600000}")
+    public void pruneTombstones() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - tombstoneRetentionDays * 86_400_000L);
+        Integer updated = new TransactionTemplate(transactionManager)
+                .execute(status -> jdbcTemplate.update(PRUNE_TOMBSTONES, cutoff));
+        if (updated != null && updated > 0) {
+            log.info("Pruned catalog tombstones older than {} days", tombstoneRetentionDays);
+        }
+    }
+
+    private void writeCourses(JsonGenerator json, long after) throws IOException {
+        json.writeArrayFieldStart("courses");
+        query(COURSES, after, rs -> {
+            json.writeStartObject();
+            json.writeStringField("id", rs.getString("id"));
+            json.writeStringField("title", rs.getString("title"));
+            json.writeStringField("description", rs.getString("description"));
+            json.writeEndObject();
+        });
+        json.writeEndArray();
+    }
+
+    private void writeTopics(JsonGenerator json, long after) throws IOException {
+        json.writeArrayFieldStart("topics");
+        query(TOPICS, after, rs -> {
+            json.writeStartObject();
+            json.writeStringField("id", rs.getString("id"));
+            json.writeStringField("courseId", rs.getString("course_id"));
+            json.writeStringField("title", rs.getString("title"));
+            json.writeNumberField("position", rs.getInt("position"));
+            json.writeEndObject();
+        });
+        json.writeEndArray();
+    }
+
+    // Bodies are not included: contentHash is the ETag of GET /api/subtopics/{id}/content,
+    // so a client fetches only the bodies it does not hold.
+    private void writeSubtopics(JsonGenerator json, long after) throws IOException {
+        json.writeArrayFieldStart("subtopics");
+        query(SUBTOPICS, after, rs -> {
+            json.writeStartObject();
+            json.writeStringField("id", rs.getString("id"));
+            json.writeStringField("topicId", rs.getString("topic_id"));
+            json.writeStringField("title", rs.getString("title"));
+            json.writeNumberField("position", rs.getInt("position"));
+            json.writeStringField("contentHash", rs.getString("content_hash"));
+            json.writeNumberField("contentLength", rs.getInt("content_length"));
+            json.writeEndObject();
+        });
+        json.writeEndArray();
+    }
+
+    // Rows arrive ordered by kind, so each kind's ids form one array.
+    private void writeRemoved(JsonGenerator json, long after) throws IOException {
+        json.writeObjectFieldStart("removed");
+        String[] kind = {null};
+        query(TOMBSTONES, after, rs -> {
+            String rowKind = rs.getString("kind");
+            if (!rowKind.equals(kind[0])) {
+                if (kind[0] != null) {
+                    json.writeEndArray();
+                }
+                json.writeArrayFieldStart(REMOVED.getOrDefault(rowKind, rowKind));
+                kind[0] = rowKind;
+            }
+            json.writeString(rs.getString("id"));
+        });
+        if (kind[0] != null) {
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private void query(String sql, long after, RowWriter writer) {
+        jdbcTemplate.query(connection -> {
+            // the PostgreSQL driver only uses a cursor inside a transaction
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, after);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                // the client went away; stop reading rows
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,138 @@
+package com.courseplatform.service;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.catalog.CatalogSnapshot;
+import com.courseplatform.dto.CourseDetailResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Owns the memory-mapped catalog snapshot. An existing snapshot file is opened at
+ * startup so catalog reads can be served before the database is touched; the file is
+ * rewritten whenever a {@link CatalogChangedEvent} is published.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    @Autowired
+    private CourseTreeLoader courseTreeLoader;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.snapshot.path:data/catalog.snapshot}")
+    private Path path;
+
+    private volatile CatalogSnapshot current;
+
+    // one rebuild at a time, so an older catalog can never be installed over a newer one
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @PostConstruct
+    void openExisting() {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        try {
+            current = CatalogSnapshot.open(path);
+            log.info("Opened catalog snapshot {} with {} courses", path, current.courseCount());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * The snapshot to serve from, or null when snapshots are disabled or none has been
+     * built yet, in which case callers read from the database.
+     */
+    public CatalogSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Forgets a snapshot whose version is ahead of the database's, which happens when the
+     * database was recreated under an existing snapshot file; the next rebuild replaces it.
+     */
+    public void discard() {
+        rebuildLock.lock();
+        try {
+            current = null;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        CatalogSnapshot snapshot = current;
+        if (enabled && (snapshot == null || snapshot.getCatalogVersion() < event.getVersion())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rewrites the snapshot from the committed catalog, stamped with the catalog version it
+     * was read at so a restarted instance can tell whether the file on disk is stale. Does
+     * nothing when the open snapshot is already at that version or newer.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            // Deliberately not read-only: a read-only transaction may be routed to a replica
+            // that has not yet replayed the change that triggered this rebuild. Repeatable
+            // read, so the version and the tree come from the same database snapshot.
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            Catalog catalog = transaction.execute(status -> {
+                long version = catalogVersionService.current();
+                CatalogSnapshot open = current;
+                if (open != null && open.getCatalogVersion() >= version) {
+                    return null;
+                }
+                return new Catalog(version, courseTreeLoader.loadAll());
+            });
+            if (catalog == null) {
+                log.debug("Catalog snapshot {} is already at version {}", path, current.getCatalogVersion());
+                return;
+            }
+
+            try {
+                CatalogSnapshot.write(path, catalog.version(), catalog.courses());
+                current = CatalogSnapshot.open(path);
+                log.info("Wrote catalog snapshot {} (version {}, {} courses, {} bytes) in {} ms", path,
+                        catalog.version(), catalog.courses().size(), Files.size(path),
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (IOException e) {
+                log.error("Failed to write catalog snapshot {}", path, e);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private record Catalog(long version, List<CourseDetailResponse> courses) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.courseplatform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The catalog version shared by all instances. Every catalog writer bumps it inside its
+ * own transaction, and the rows it writes carry the new version as their revision (see
+ * {@code CatalogChangesService}). The bump also queues a {@code NOTIFY} on
+ * {@link #CHANNEL}, which PostgreSQL delivers to the listening instances only if that
+ * transaction commits.
+ */
+@Service
+public class CatalogVersionService {
+
+    public static final String CHANNEL = "catalog_changed";
+
+    // At most one bump per transaction; the catalog revision triggers take the same version
+    // (migration V6).
+    private static final String BUMP = "SELECT next_catalog_version()";
+
+    // Tells this instance's own notifications apart from those of other instances.
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Bumps the version, unless the caller's transaction already has, and notifies the
+     * other instances once that transaction commits. The caller still publishes its own
+     * {@code CatalogChangedEvent} locally.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long bump(String source) {
+        Long version = jdbcTemplate.queryForObject(BUMP, Long.class);
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, version + " " + instanceId + " " + source);
+        return version;
+    }
+
+    /** The committed version, or 0 before the catalog has ever been written. */
+    public long current() {
+        List<Long> versions = jdbcTemplate.queryForList("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -0,0 +1,356 @@
+package com.courseplatform.service;
+
+import com.courseplatform.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Instance-local store of subtopic bodies, addressed by the SHA-256 of their UTF-8 bytes
+ * (the {@code subtopics.content_hash} reference). Bodies are fetched from
+ * {@code subtopic_content} on first use and appended to segment files under
+ * {@code content.store.path}, which are read through memory-mapped I/O and served with
+ * zero-copy transfers. Being content-addressed, an entry never changes; a changed body
+ * is a new entry. The files are only a cache of the database: once they outgrow
+ * {@code content.store.max-bytes}, the oldest segments are dropped and their bodies are
+ * fetched again when next used. The segment being appended to is never dropped, so the
+ * limit should hold several {@code content.store.segment-bytes}. A dropped segment's
+ * file is deleted only when the next one is dropped, so a response already handed its
+ * path can still be sent from it.
+ *
+ * <p>Segment entry: 32-byte hash, int body length, body bytes.
+ */
+@Service
+public class ContentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentStore.class);
+
+    private static final int HEADER_BYTES = 32 + 4;
+    private static final int FETCH_CHUNK = 500;
+    private static final HexFormat HEX = HexFormat.of();
+
+    /** Where an entry's body bytes live, for zero-copy transfers. */
+    public record Region(String hash, Path file, long offset, long length) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${content.store.path:data/content}")
+    private Path directory;
+
+    @Value("${content.store.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${content.store.max-bytes:1073741824}")
+    private long maxBytes;
+
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final AtomicLong storedBytes = new AtomicLong();
+    // guarded by appendLock
+    private final List<Segment> dropped = new ArrayList<>();
+    private int nextSegmentNumber;
+
+    /** Hex SHA-256 of the body's UTF-8 bytes, the key bodies are stored under. */
+    public static String hash(String body) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().matches("segment-\\d+\\.dat"))
+                    .sorted()
+                    .toList();
+        }
+        if (!files.isEmpty()) {
+            nextSegmentNumber = segmentNumber(files.get(files.size() - 1)) + 1;
+        }
+        long total = 0;
+        for (Path file : files) {
+            total += Files.size(file);
+        }
+        int first = 0;
+        while (total > maxBytes && first < files.size() - 1) {
+            total -= Files.size(files.get(first));
+            Files.delete(files.get(first++));
+        }
+        if (first > 0) {
+            log.info("Content store {} was over its limit of {} bytes, dropped its {} oldest segments",
+                    directory, maxBytes, first);
+            files = files.subList(first, files.size());
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            // Only the last segment can hold a torn or unsynced append; earlier ones were
+            // forced to disk when the next segment was started.
+            segments.add(Segment.scan(files.get(i), i == files.size() - 1, index, storedBytes));
+        }
+        meterRegistry.gauge("content.store.bytes", storedBytes);
+        meterRegistry.gaugeMapSize("content.store.entries", Tags.empty(), index);
+        log.info("Opened content store {} with {} entries in {} segments", directory, index.size(), segments.size());
+    }
+
+    @PreDestroy
+    void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        for (Segment segment : dropped) {
+            segment.close();
+        }
+    }
+
+    /**
+     * The body stored under {@code hash}, fetched from the database on first use.
+     *
+     * @throws NotFoundException when the database no longer holds it either: the caller
+     *                           read the hash before a catalog change removed the body
+     */
+    public String read(String hash) {
+        Entry entry = entry(hash);
+        return StandardCharsets.UTF_8.decode(entry.segment.slice(entry.offset, entry.length)).toString();
+    }
+
+    public Region region(String hash) {
+        Entry entry = entry(hash);
+        return new Region(hash, entry.segment.path, entry.offset, entry.length);
+    }
+
+    /** Fetches every body not stored yet in as few queries as possible, ahead of {@link #read}. */
+    public void prefetch(Collection<String> hashes) {
+        List<String> missing = hashes.stream().filter(hash -> !index.containsKey(hash)).distinct().toList();
+        for (int from = 0; from < missing.size(); from += FETCH_CHUNK) {
+            fetch(missing.subList(from, Math.min(missing.size(), from + FETCH_CHUNK)));
+        }
+    }
+
+    private Entry entry(String hash) {
+        Entry entry = index.get(hash);
+        if (entry != null) {
+            meterRegistry.counter("content.store.reads", "source", "local").increment();
+            return entry;
+        }
+        fetch(List.of(hash));
+        entry = index.get(hash);
+        if (entry == null) {
+            throw new NotFoundException("No subtopic content with hash " + hash);
+        }
+        return entry;
+    }
+
+    private void fetch(List<String> hashes) {
+        meterRegistry.counter("content.store.reads", "source", "database").increment(hashes.size());
+        String placeholders = String.join(",", Collections.nCopies(hashes.size(), "?"));
+        jdbcTemplate.query("SELECT hash, body FROM subtopic_content WHERE hash IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> append(rs.getString("hash"), rs.getString("body").getBytes(StandardCharsets.UTF_8)),
+                hashes.toArray());
+    }
+
+    private void append(String hash, byte[] body) {
+        appendLock.lock();
+        try {
+            if (index.containsKey(hash)) {
+                return;
+            }
+            while (storedBytes.get() + HEADER_BYTES + body.length > maxBytes && segments.size() > 1) {
+                dropOldest();
+            }
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || (segment.size > 0 && segment.size + HEADER_BYTES + body.length > segmentBytes)) {
+                if (segment != null) {
+                    segment.force();
+                }
+                segment = Segment.create(directory.resolve(String.format("segment-%06d.dat", nextSegmentNumber++)));
+                segments.add(segment);
+            }
+            long offset = segment.append(HEX.parseHex(hash), body);
+            storedBytes.addAndGet(HEADER_BYTES + body.length);
+            index.put(hash, new Entry(segment, offset, body.length));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the content store " + directory, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Called with the append lock held. Entries go first, so new reads fetch the body
+    // again; the file stays until the next drop for responses already given its path.
+    private void dropOldest() throws IOException {
+        Segment oldest = segments.remove(0);
+        index.values().removeIf(entry -> entry.segment == oldest);
+        storedBytes.addAndGet(-oldest.size);
+        for (Segment segment : dropped) {
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        }
+        dropped.clear();
+        dropped.add(oldest);
+        meterRegistry.counter("content.store.dropped-segments").increment();
+        log.info("Dropped content segment {} to stay within {} bytes", oldest.path.getFileName(), maxBytes);
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - ".dat".length()));
+    }
+
+    private record Entry(Segment segment, long offset, int length) {
+    }
+
+    /** An append-only segment file and its current read-only mapping. */
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final ReentrantLock mapLock = new ReentrantLock();
+        private volatile MappedByteBuffer mapped;
+        // appended bytes; written only under the store's append lock
+        private volatile long size;
+
+        private Segment(Path path, FileChannel channel, long size) throws IOException {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        static Segment create(Path path) throws IOException {
+            return new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE), 0);
+        }
+
+        // Indexes every complete entry and truncates a torn tail. With verify, each body is
+        // also checked against its hash and the segment is cut at the first mismatch.
+        static Segment scan(Path path, boolean verify, ConcurrentHashMap<String, Entry> index,
+                            AtomicLong storedBytes) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long fileSize = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            List<ScannedEntry> entries = new ArrayList<>();
+            long position = 0;
+            while (position + HEADER_BYTES <= fileSize) {
+                byte[] hashBytes = new byte[32];
+                buffer.get((int) position, hashBytes);
+                int length = buffer.getInt((int) position + 32);
+                long bodyOffset = position + HEADER_BYTES;
+                if (length < 0 || bodyOffset + length > fileSize) {
+                    break;
+                }
+                String hash = HEX.formatHex(hashBytes);
+                if (verify && !hash.equals(hashOf(buffer, bodyOffset, length))) {
+                    break;
+                }
+                entries.add(new ScannedEntry(hash, bodyOffset, length));
+                position = bodyOffset + length;
+            }
+            if (position < fileSize) {
+                log.warn("Truncating content segment {} from {} to {} bytes", path, fileSize, position);
+                channel.truncate(position);
+            }
+            channel.position(position);
+
+            Segment segment = new Segment(path, channel, position);
+            for (ScannedEntry entry : entries) {
+                index.putIfAbsent(entry.hash(), new Entry(segment, entry.offset(), entry.length()));
+            }
+            storedBytes.addAndGet(position);
+            return segment;
+        }
+
+        private record ScannedEntry(String hash, long offset, int length) {
+        }
+
+        long append(byte[] hash, byte[] body) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).put(hash).putInt(body.length).flip();
+            long position = size;
+            channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(body)});
+            size = position + HEADER_BYTES + body.length;
+            return position + HEADER_BYTES;
+        }
+
+        ByteBuffer slice(long offset, int length) {
+            MappedByteBuffer current = mapped;
+            if (offset + length > current.capacity()) {
+                current = remap();
+            }
+            return current.slice((int) offset, length);
+        }
+
+        private MappedByteBuffer remap() {
+            mapLock.lock();
+            try {
+                if (mapped.capacity() < size) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                return mapped;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map content segment " + path, e);
+            } finally {
+                mapLock.unlock();
+            }
+        }
+
+        void force() throws IOException {
+            channel.force(false);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Closing content segment {} failed", path, e);
+            }
+        }
+
+        private static String hashOf(ByteBuffer buffer, long offset, int length) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(buffer.slice((int) offset, length));
+                return HEX.formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.courseplatform.service;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.SubtopicDetail;
+import com.courseplatform.dto.TopicDetail;
+import com.courseplatform.exception.NotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds and caches one zip per course and catalog version: {@code course.json} (the
+ * outline, with each subtopic's file name) and one markdown file per subtopic. A bundle
+ * is built on first request for the current catalog version, with concurrent requests
+ * for it sharing one build, and written to {@code bundle.path/<version>/}. After that it
+ * is served from disk. Entries carry a fixed timestamp, so a bundle's bytes depend only
+ * on the course. The directory of the previous version is kept for downloads still being
+ * resumed; older ones are deleted when the catalog changes.
+ */
+@Service
+public class CourseBundleService {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseBundleService.class);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);
+
+    /** A bundle on disk and its strong entity tag (quoted hex SHA-256 of the file). */
+    public record Bundle(Path file, long length, String etag, String fileName) {
+    }
+
+    @Autowired
+    private CourseTreeLoader courseTreeLoader;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private LookupFilters lookupFilters;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bundle.path:data/bundles}")
+    private Path directory;
+
+    // -1 until read from the database on first use
+    private volatile long version = -1;
+
+    private final ConcurrentHashMap<Path, Bundle> bundles = new ConcurrentHashMap<>();
+
+    public Bundle getBundle(String courseId) {
+        if (!lookupFilters.mightContain(LookupFilters.Key.COURSE, courseId)) {
+            throw new NotFoundException("Course with id '" + courseId + "' does not exist");
+        }
+        long current = currentVersion();
+        Path file = directory.resolve(Long.toString(current)).resolve(ContentStore.hash(courseId) + ".zip");
+        Bundle bundle = bundles.get(file);
+        if (bundle != null) {
+            meterRegistry.counter("course.bundle.requests", "source", "memory").increment();
+            return bundle;
+        }
+        // The flight already makes the build run once; building inside computeIfAbsent would
+        // also hold the map's bin lock for the whole build.
+        return singleFlight.execute("bundle", file, () -> {
+            Bundle loaded = bundles.get(file);
+            if (loaded == null) {
+                loaded = load(courseId, file);
+                bundles.put(file, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void removeStale() {
+        removeVersionsBefore(currentVersion());
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        long updated = event.getVersion();
+        if (updated > version) {
+            version = updated;
+            // keep the previous version for downloads being resumed
+            removeVersionsBefore(updated - 1);
+        }
+    }
+
+    private long currentVersion() {
+        long current = version;
+        if (current < 0) {
+            current = catalogVersionService.current();
+            version = Math.max(version, current);
+        }
+        return current;
+    }
+
+    private Bundle load(String courseId, Path file) {
+        try {
+            if (Files.exists(file)) {
+                meterRegistry.counter("course.bundle.requests", "source", "disk").increment();
+                return new Bundle(file, Files.size(file), etag(sha256(file)), fileName(courseId));
+            }
+            meterRegistry.counter("course.bundle.requests", "source", "built").increment();
+            return build(courseId, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare the bundle of course " + courseId, e);
+        }
+    }
+
+    private Bundle build(String courseId, Path file) throws IOException {
+        long started = System.nanoTime();
+        // Not read-only: a replica may not have replayed the catalog version yet.
+        CourseDetailResponse course = new TransactionTemplate(transactionManager)
+                .execute(status -> courseTreeLoader.load(courseId))
+                .orElseThrow(() -> new NotFoundException("Course with id '" + courseId + "' does not exist"));
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            try (ZipOutputStream zip = new ZipOutputStream(new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024), digest))) {
+                zip.setLevel(Deflater.BEST_COMPRESSION);
+                writeCourse(zip, course);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            long length = Files.size(file);
+            log.info("Built bundle of course {} for catalog version {} ({} bytes) in {} ms", courseId,
+                    file.getParent().getFileName(), length, (System.nanoTime() - started) / 1_000_000);
+            return new Bundle(file, length, etag(HEX.formatHex(digest.digest())), fileName(courseId));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Subtopic files are numbered by position, so ids need not be valid file names.
+    private void writeCourse(ZipOutputStream zip, CourseDetailResponse course) throws IOException {
+        entry(zip, "course.json");
+        JsonGenerator json = objectMapper.getFactory().createGenerator((OutputStream) zip);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.useDefaultPrettyPrinter();
+        json.writeStartObject();
+        json.writeStringField("id", course.getId());
+        json.writeStringField("title", course.getTitle());
+        json.writeStringField("description", course.getDescription());
+        json.writeArrayFieldStart("topics");
+        int topicNumber = 0;
+        for (TopicDetail topic : course.getTopics()) {
+            topicNumber++;
+            json.writeStartObject();
+            json.writeStringField("id", topic.getId());
+            json.writeStringField("title", topic.getTitle());
+            json.writeArrayFieldStart("subtopics");
+            int subtopicNumber = 0;
+            for (SubtopicDetail subtopic : topic.getSubtopics()) {
+                subtopicNumber++;
+                json.writeStartObject();
+                json.writeStringField("id", subtopic.getId());
+                json.writeStringField("title", subtopic.getTitle());
+                json.writeStringField("file", subtopicFile(topicNumber, subtopicNumber));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.flush();
+        zip.closeEntry();
+
+        topicNumber = 0;
+        for (TopicDetail topic : course.getTopics()) {
+            topicNumber++;
+            int subtopicNumber = 0;
+            for (SubtopicDetail subtopic : topic.getSubtopics()) {
+                subtopicNumber++;
+                entry(zip, subtopicFile(topicNumber, subtopicNumber));
+                if (subtopic.getContent() != null) {
+                    zip.write(subtopic.getContent().getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static void entry(ZipOutputStream zip, String name) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(ENTRY_TIME);
+        zip.putNextEntry(entry);
+    }
+
+    private static String subtopicFile(int topicNumber, int subtopicNumber) {
+        return String.format("topics/%03d/%03d.md", topicNumber, subtopicNumber);
+    }
+
+    private static String fileName(String courseId) {
+        return courseId.replaceAll("[^A-Za-z0-9._-]", "_") + ".zip";
+    }
+
+    private void removeVersionsBefore(long oldest) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> versions = Files.list(directory)) {
+            for (Path versionDirectory : versions.toList()) {
+                String name = versionDirectory.getFileName().toString();
+                if (name.matches("\\d+") && Long.parseLong(name) < oldest) {
+                    bundles.keySet().removeIf(file -> file.startsWith(versionDirectory));
+                    FileSystemUtils.deleteRecursively(versionDirectory);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove old course bundles from {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String etag(String hash) {
+        return "\"" + hash + "\"";
+    }
+}
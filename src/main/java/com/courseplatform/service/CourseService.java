@@ -1,123 +1,148 @@
 package com.courseplatform.service;
 
+import com.courseplatform.catalog.CatalogSnapshot;
 import com.courseplatform.dto.*;
 import com.courseplatform.entity.Course;
 import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
 import com.courseplatform.exception.NotFoundException;
 import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", percentiles = {0.5, 0.99})
 public class CourseService {
 
     @Autowired
     private CourseRepository courseRepository;
 
-    @Transactional(readOnly = true)
-    public CourseListResponse getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
+    @Autowired
+    private SubtopicRepository subtopicRepository;
 
-        List<CourseSummary> summaries = courses.stream()
-                .map(course -> {
-                    int topicCount = course.getTopics().size();
-                    int subtopicCount = course.getTopics().stream()
-                            .mapToInt(topic -> topic.getSubtopics().size())
-                            .sum();
+    @Autowired
+    private CourseTreeLoader courseTreeLoader;
 
-                    return new CourseSummary(
-                            course.getId(),
-                            course.getTitle(),
-                            course.getDescription(),
-                            topicCount,
-                            subtopicCount
-                    );
-                })
-                .collect(Collectors.toList());
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-        return new CourseListResponse(summaries);
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private LookupFilters lookupFilters;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Catalog reads are served from the snapshot when one is open; the transaction is
+    // only started on the database path so a snapshot hit never takes a connection.
+    // Concurrent identical database reads share one transaction through singleFlight.
+    public CourseListResponse getAllCourses() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return new CourseListResponse(snapshot.courseSummaries());
+        }
+        return singleFlight.execute("courses", "all",
+                () -> readOnlyTransaction.execute(status -> loadAllCourses()));
     }
 
-    @Transactional(readOnly = true)
     public CourseDetailResponse getCourseById(String courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new NotFoundException("Course with id '" + courseId + "' does not exist"));
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return snapshot.course(courseId)
+                    .orElseThrow(() -> new NotFoundException("Course with id '" + courseId + "' does not exist"));
+        }
+        if (!lookupFilters.mightContain(LookupFilters.Key.COURSE, courseId)) {
+            throw new NotFoundException("Course with id '" + courseId + "' does not exist");
+        }
+        return singleFlight.execute("course", courseId,
+                () -> readOnlyTransaction.execute(status -> loadCourseById(courseId)));
+    }
 
-        List<TopicDetail> topics = course.getTopics().stream()
-                .map(topic -> {
-                    List<SubtopicDetail> subtopics = topic.getSubtopics().stream()
-                            .map(subtopic -> new SubtopicDetail(
-                                    subtopic.getId(),
-                                    subtopic.getTitle(),
-                                    subtopic.getContent()
-                            ))
-                            .collect(Collectors.toList());
-
-                    return new TopicDetail(
-                            topic.getId(),
-                            topic.getTitle(),
-                            subtopics
-                    );
-                })
-                .collect(Collectors.toList());
+    private CourseListResponse loadAllCourses() {
+        return new CourseListResponse(courseTreeLoader.loadSummaries());
+    }
 
-        return new CourseDetailResponse(
-                course.getId(),
-                course.getTitle(),
-                course.getDescription(),
-                topics
-        );
+    private CourseDetailResponse loadCourseById(String courseId) {
+        return courseTreeLoader.load(courseId)
+                .orElseThrow(() -> new NotFoundException("Course with id '" + courseId + "' does not exist"));
+    }
+
+    /** Where the subtopic's body is stored, for streaming it out. */
+    public ContentStore.Region getSubtopicContent(String subtopicId) {
+        if (!lookupFilters.mightContain(LookupFilters.Key.SUBTOPIC, subtopicId)) {
+            throw new NotFoundException("Subtopic with id '" + subtopicId + "' does not exist");
+        }
+        Subtopic subtopic = subtopicRepository.findById(subtopicId)
+                .orElseThrow(() -> new NotFoundException("Subtopic with id '" + subtopicId + "' does not exist"));
+        try {
+            return contentStore.region(subtopic.getContentHash());
+        } catch (NotFoundException removed) {
+            // The cached subtopic predates a catalog change that removed its old body;
+            // the database has its current hash.
+            String hash = subtopicRepository.findContentHashById(subtopicId)
+                    .orElseThrow(() -> new NotFoundException("Subtopic with id '" + subtopicId + "' does not exist"));
+            return contentStore.region(hash);
+        }
     }
 
-    @Transactional(readOnly = true)
     public SearchResponse searchCourses(String query) {
         if (query == null || query.trim().isEmpty()) {
             return new SearchResponse(query, new ArrayList<>());
         }
+        // Results depend only on the trimmed term, so padded spellings share one load; each
+        // caller still gets its own query echoed back.
+        String term = query.trim();
+        List<SearchResult> results = singleFlight.execute("search", term,
+                () -> readOnlyTransaction.execute(status -> loadSearch(term)));
+        return new SearchResponse(query, results);
+    }
 
-        List<Course> courses = courseRepository.searchCourses(query.trim());
-
-        List<SearchResult> results = courses.stream()
+    // The matching courses, then all their subtopic rows in one statement; walking the
+    // lazy topics and subtopics would cost a query per course and per topic.
+    private List<SearchResult> loadSearch(String term) {
+        List<Course> courses = courseRepository.searchCourses(term);
+        Map<String, List<CourseTreeLoader.SubtopicRow>> subtopicsByCourse = courseTreeLoader
+                .loadSubtopics(courses.stream().map(Course::getId).toList()).stream()
+                .collect(Collectors.groupingBy(CourseTreeLoader.SubtopicRow::courseId));
+        // bodies not yet stored locally are fetched in one query rather than one per subtopic
+        contentStore.prefetch(subtopicsByCourse.values().stream()
+                .flatMap(List::stream)
+                .map(CourseTreeLoader.SubtopicRow::contentHash)
+                .toList());
+
+        String lowerQuery = term.toLowerCase();
+        return courses.stream()
                 .map(course -> {
                     List<SearchMatch> matches = new ArrayList<>();
-                    String lowerQuery = query.toLowerCase();
-
-                    for (Topic topic : course.getTopics()) {
-                        for (Subtopic subtopic : topic.getSubtopics()) {
-                            if (subtopic.getTitle().toLowerCase().contains(lowerQuery)) {
-                                String snippet = subtopic.getContent().length() > 150
-                                        ? subtopic.getContent().substring(0, 150) + "..."
-                                        : subtopic.getContent();
-
-                                matches.add(new SearchMatch(
-                                        "subtopic",
-                                        topic.getTitle(),
-                                        subtopic.getId(),
-                                        subtopic.getTitle(),
-                                        snippet
-                                ));
-                            } else if (subtopic.getContent().toLowerCase().contains(lowerQuery)) {
-                                int index = subtopic.getContent().toLowerCase().indexOf(lowerQuery);
-                                int start = Math.max(0, index - 50);
-                                int end = Math.min(subtopic.getContent().length(), index + 100);
-                                String snippet = (start > 0 ? "..." : "") +
-                                        subtopic.getContent().substring(start, end) +
-                                        (end < subtopic.getContent().length() ? "..." : "");
-
-                                matches.add(new SearchMatch(
-                                        "content",
-                                        topic.getTitle(),
-                                        subtopic.getId(),
-                                        subtopic.getTitle(),
-                                        snippet
-                                ));
-                            }
+
+                    for (CourseTreeLoader.SubtopicRow subtopic
+                            : subtopicsByCourse.getOrDefault(course.getId(), List.of())) {
+                        SearchMatch match = SearchMatcher.match(lowerQuery, subtopic.topicTitle(),
+                                subtopic.subtopicId(), subtopic.subtopicTitle(), body(subtopic.contentHash()));
+                        if (match != null) {
+                            matches.add(match);
                         }
                     }
 
@@ -129,7 +154,15 @@ public class CourseService {
                 })
                 .filter(result -> !result.getMatches().isEmpty())
                 .collect(Collectors.toList());
+    }
 
-        return new SearchResponse(query, results);
+    // A body removed by a catalog change committed after the rows were read is matched on
+    // its titles only.
+    private String body(String contentHash) {
+        try {
+            return contentStore.read(contentHash);
+        } catch (NotFoundException removed) {
+            return "";
+        }
     }
 }
@@ -0,0 +1,155 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseSummary;
+import com.courseplatform.dto.SubtopicDetail;
+import com.courseplatform.dto.TopicDetail;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads whole course trees (course, topics, subtopics) with one SQL statement instead of
+ * walking the lazy {@code topics} and {@code subtopics} bags, which costs one query per
+ * topic. Rows arrive ordered by course, topic position and subtopic position, so the DTO
+ * tree is assembled in a single pass over the result set. The course list and search
+ * read their counts and subtopic rows the same way, one statement each. Runs in the
+ * caller's transaction, which decides whether a replica may serve it.
+ */
+@Component
+public class CourseTreeLoader {
+
+    private static final String TREE =
+            "SELECT c.id, c.title, c.description, t.id AS topic_id, t.title AS topic_title, " +
+            "s.id AS subtopic_id, s.title AS subtopic_title, b.body AS content " +
+            "FROM courses c " +
+            "LEFT JOIN topics t ON t.course_id = c.id " +
+            "LEFT JOIN subtopics s ON s.topic_id = t.id " +
+            "LEFT JOIN subtopic_content b ON b.hash = s.content_hash ";
+
+    private static final String ORDER = "ORDER BY c.id, t.position, t.id, s.position, s.id";
+
+    private static final String SUMMARIES =
+            "SELECT c.id, c.title, c.description, " +
+            "COUNT(DISTINCT t.id) AS topic_count, COUNT(s.id) AS subtopic_count " +
+            "FROM courses c " +
+            "LEFT JOIN topics t ON t.course_id = c.id " +
+            "LEFT JOIN subtopics s ON s.topic_id = t.id " +
+            "GROUP BY c.id, c.title, c.description " +
+            "ORDER BY c.id";
+
+    // Hashes rather than bodies: search reads the bodies from the ContentStore.
+    private static final String SUBTOPICS_OF_COURSES =
+            "SELECT t.course_id, t.title AS topic_title, s.id AS subtopic_id, s.title AS subtopic_title, " +
+            "s.content_hash " +
+            "FROM topics t " +
+            "JOIN subtopics s ON s.topic_id = t.id " +
+            "WHERE t.course_id = ANY (?) " +
+            "ORDER BY t.course_id, t.position, t.id, s.position, s.id";
+
+    private static final String COUNT_SUBTOPICS =
+            "SELECT COUNT(*) FROM subtopics s JOIN topics t ON t.id = s.topic_id WHERE t.course_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${catalog.tree.fetch-size:500}")
+    private int fetchSize;
+
+    public Optional<CourseDetailResponse> load(String courseId) {
+        TreeAssembler assembler = new TreeAssembler();
+        jdbcTemplate.query(TREE + "WHERE c.id = ? " + ORDER, assembler, courseId);
+        return assembler.courses.isEmpty() ? Optional.empty() : Optional.of(assembler.courses.get(0));
+    }
+
+    /** Every course tree, ordered by course id; the rows are streamed in fetch-size chunks. */
+    public List<CourseDetailResponse> loadAll() {
+        TreeAssembler assembler = new TreeAssembler();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(TREE + ORDER);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, assembler);
+        return assembler.courses;
+    }
+
+    /** Every course with its topic and subtopic counts, ordered by course id. */
+    public List<CourseSummary> loadSummaries() {
+        return jdbcTemplate.query(SUMMARIES, (rs, rowNum) -> new CourseSummary(
+                rs.getString("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getInt("topic_count"),
+                rs.getInt("subtopic_count")));
+    }
+
+    /** The subtopics of the given courses, ordered by course, topic position and subtopic position. */
+    public List<SubtopicRow> loadSubtopics(Collection<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SUBTOPICS_OF_COURSES);
+            statement.setArray(1, connection.createArrayOf("text", courseIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> new SubtopicRow(
+                rs.getString("course_id"),
+                rs.getString("topic_title"),
+                rs.getString("subtopic_id"),
+                rs.getString("subtopic_title"),
+                rs.getString("content_hash")));
+    }
+
+    public int countSubtopics(String courseId) {
+        Integer count = jdbcTemplate.queryForObject(COUNT_SUBTOPICS, Integer.class, courseId);
+        return count != null ? count : 0;
+    }
+
+    public record SubtopicRow(String courseId, String topicTitle, String subtopicId, String subtopicTitle,
+                              String contentHash) {
+    }
+
+    // Topics and subtopics are null for a course without topics or a topic without
+    // subtopics (LEFT JOIN), and a new course or topic starts whenever its id changes.
+    private static final class TreeAssembler implements RowCallbackHandler {
+        private final List<CourseDetailResponse> courses = new ArrayList<>();
+        private CourseDetailResponse course;
+        private TopicDetail topic;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String courseId = rs.getString("id");
+            if (course == null || !course.getId().equals(courseId)) {
+                course = new CourseDetailResponse(courseId, rs.getString("title"), rs.getString("description"),
+                        new ArrayList<>());
+                courses.add(course);
+                topic = null;
+            }
+
+            String topicId = rs.getString("topic_id");
+            if (topicId == null) {
+                return;
+            }
+            if (topic == null || !topic.getId().equals(topicId)) {
+                topic = new TopicDetail(topicId, rs.getString("topic_title"), new ArrayList<>());
+                course.getTopics().add(topic);
+            }
+
+            String subtopicId = rs.getString("subtopic_id");
+            if (subtopicId != null) {
+                topic.getSubtopics().add(new SubtopicDetail(subtopicId, rs.getString("subtopic_title"),
+                        rs.getString("content")));
+            }
+        }
+    }
+}
@@ -1,72 +1,324 @@
 package com.courseplatform.service;
 
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
-import com.courseplatform.repository.CourseRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+/**
+ * Applies the catalog file to the database on every start. The file is read with the
+ * Jackson token stream, so only one course is held in memory at a time, and rows are
+ * upserted by id in JDBC batches; rows whose content did not change are left alone.
+ */
 @Service
 public class DataSeederService implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataSeederService.class);
+
+    private static final String UPSERT_COURSE =
+            "INSERT INTO courses (id, title, description) VALUES (?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description " +
+            "WHERE (courses.title, courses.description) IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.description)";
+
+    private static final String UPSERT_TOPIC =
+            "INSERT INTO topics (id, title, course_id, position) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, course_id = EXCLUDED.course_id, " +
+            "position = EXCLUDED.position " +
+            "WHERE (topics.title, topics.course_id, topics.position) " +
+            "IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.course_id, EXCLUDED.position)";
+
+    // Bodies are content-addressed, so an existing hash already holds this exact body.
+    private static final String INSERT_CONTENT =
+            "INSERT INTO subtopic_content (hash, length, body) VALUES (?, ?, ?) ON CONFLICT (hash) DO NOTHING";
+
+    private static final String UPSERT_SUBTOPIC =
+            "INSERT INTO subtopics (id, title, content_hash, content_length, topic_id, position) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, content_hash = EXCLUDED.content_hash, " +
+            "content_length = EXCLUDED.content_length, topic_id = EXCLUDED.topic_id, position = EXCLUDED.position " +
+            "WHERE (subtopics.title, subtopics.content_hash, subtopics.topic_id, subtopics.position) " +
+            "IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.content_hash, EXCLUDED.topic_id, EXCLUDED.position)";
+
+    // Rows this transaction inserted or updated carry its id as xmin; an upsert that found
+    // the row unchanged leaves xmin alone. The driver's update counts cannot tell: rewritten
+    // batches report SUCCESS_NO_INFO. Costs one scan of each catalog table per start.
+    private static final String ROWS_WRITTEN =
+            "SELECT EXISTS (SELECT 1 FROM courses WHERE xmin = pg_current_xact_id()::xid) " +
+            "OR EXISTS (SELECT 1 FROM topics WHERE xmin = pg_current_xact_id()::xid) " +
+            "OR EXISTS (SELECT 1 FROM subtopics WHERE xmin = pg_current_xact_id()::xid)";
+
+    private static final String DELETE_ORPHANED_CONTENT =
+            "DELETE FROM subtopic_content b WHERE NOT EXISTS (SELECT 1 FROM subtopics s WHERE s.content_hash = b.hash)";
+
     @Autowired
-    private CourseRepository courseRepository;
+    private JdbcTemplate jdbcTemplate;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${catalog.seed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.seed.location:classpath:seed-data.json}")
+    private String location;
+
+    @Value("${catalog.seed.batch-size:500}")
+    private int batchSize;
+
     @Override
     public void run(String... args) throws Exception {
-        if (courseRepository.count() > 0) {
-            System.out.println("Database already contains data. Skipping seed.");
+        if (!enabled) {
+            log.info("Catalog seeding disabled");
             return;
         }
 
-        System.out.println("Loading seed data...");
-
-        ClassPathResource resource = new ClassPathResource("seed-data.json");
-        InputStream inputStream = resource.getInputStream();
-        JsonNode rootNode = objectMapper.readTree(inputStream);
-        JsonNode coursesNode = rootNode.get("courses");
-
-        for (JsonNode courseNode : coursesNode) {
-            Course course = new Course();
-            course.setId(courseNode.get("id").asText());
-            course.setTitle(courseNode.get("title").asText());
-            course.setDescription(courseNode.get("description").asText());
-
-            JsonNode topicsNode = courseNode.get("topics");
-            for (JsonNode topicNode : topicsNode) {
-                Topic topic = new Topic();
-                topic.setId(topicNode.get("id").asText());
-                topic.setTitle(topicNode.get("title").asText());
-                topic.setCourse(course);
-
-                JsonNode subtopicsNode = topicNode.get("subtopics");
-                for (JsonNode subtopicNode : subtopicsNode) {
-                    Subtopic subtopic = new Subtopic();
-                    subtopic.setId(subtopicNode.get("id").asText());
-                    subtopic.setTitle(subtopicNode.get("title").asText());
-                    subtopic.setContent(subtopicNode.get("content").asText());
-                    subtopic.setTopic(topic);
-
-                    topic.getSubtopics().add(subtopic);
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            log.warn("Catalog file {} not found, skipping seed", location);
+            return;
+        }
+
+        long started = System.nanoTime();
+        Batches batches = new TransactionTemplate(transactionManager).execute(status -> {
+            try (InputStream in = open(resource)) {
+                Batches loaded = load(in);
+                loaded.changed = Boolean.TRUE.equals(jdbcTemplate.queryForObject(ROWS_WRITTEN, Boolean.class));
+                if (loaded.changed) {
+                    jdbcTemplate.update(DELETE_ORPHANED_CONTENT);
+                    loaded.version = catalogVersionService.bump("seed");
                 }
+                return loaded;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read catalog file " + location, e);
+            }
+        });
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rows = batches.courses + batches.topics + batches.subtopics;
+
+        log.info("Catalog applied from {}: {} courses, {} topics, {} subtopics in {} ms ({} rows/s, {} batches, {})",
+                location, batches.courses, batches.topics, batches.subtopics, elapsedMs,
+                rows * 1000 / elapsedMs, batches.flushes, batches.changed ? "changed" : "unchanged");
+
+        // An unchanged catalog keeps its version; instances whose snapshot is stale catch up
+        // through CatalogChangeListener's startup check instead.
+        if (batches.changed) {
+            eventPublisher.publishEvent(new CatalogChangedEvent("seed", batches.version));
+        }
+    }
+
+    private InputStream open(Resource resource) throws IOException {
+        InputStream in = new BufferedInputStream(resource.getInputStream());
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        boolean gzipped = first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >>> 8);
+        return gzipped ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    private Batches load(InputStream in) throws IOException {
+        JsonFactory factory = objectMapper.getFactory();
+        Batches batches = new Batches();
 
-                course.getTopics().add(topic);
+        try (JsonParser parser = factory.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("courses".equals(field)) {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readCourse(parser, batches);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
             }
+        }
 
-            courseRepository.save(course);
-            System.out.println("Loaded course: " + course.getTitle());
+        batches.flush();
+        return batches;
+    }
+
+    private void readCourse(JsonParser parser, Batches batches) throws IOException {
+        String id = null;
+        String title = null;
+        String description = null;
+        List<TopicRecord> topics = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "title" -> title = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "topics" -> {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        topics.add(readTopic(parser, batches));
+                    }
+                }
+                default -> parser.skipChildren();
+            }
         }
 
-        System.out.println("Seed data loaded successfully!");
+        requireId(id, "course");
+        batches.courseRows.add(new Object[]{id, title, description});
+        // positions follow the order of the file
+        for (int topicPosition = 0; topicPosition < topics.size(); topicPosition++) {
+            TopicRecord topic = topics.get(topicPosition);
+            batches.topicRows.add(new Object[]{topic.id, topic.title, id, topicPosition});
+            for (int subtopicPosition = 0; subtopicPosition < topic.subtopics.size(); subtopicPosition++) {
+                Object[] subtopic = topic.subtopics.get(subtopicPosition);
+                subtopic[4] = topic.id;
+                subtopic[5] = subtopicPosition;
+                batches.subtopicRows.add(subtopic);
+            }
+        }
+        batches.flushIfFull();
+    }
+
+    private TopicRecord readTopic(JsonParser parser, Batches batches) throws IOException {
+        TopicRecord topic = new TopicRecord();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> topic.id = parser.getValueAsString();
+                case "title" -> topic.title = parser.getValueAsString();
+                case "subtopics" -> {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        topic.subtopics.add(readSubtopic(parser, batches));
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        requireId(topic.id, "topic");
+        return topic;
+    }
+
+    private Object[] readSubtopic(JsonParser parser, Batches batches) throws IOException {
+        Object[] row = new Object[6];
+        String content = "";
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> row[0] = parser.getValueAsString();
+                case "title" -> row[1] = parser.getValueAsString();
+                case "content" -> content = parser.getValueAsString("");
+                default -> parser.skipChildren();
+            }
+        }
+
+        requireId((String) row[0], "subtopic");
+        String hash = ContentStore.hash(content);
+        int length = content.getBytes(StandardCharsets.UTF_8).length;
+        row[2] = hash;
+        row[3] = length;
+        batches.contentRows.add(new Object[]{hash, length, content});
+        return row;
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IllegalStateException("Malformed catalog file: expected " + expected + " but found " + actual);
+        }
+    }
+
+    private void requireId(String id, String kind) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalStateException("Malformed catalog file: " + kind + " without an id");
+        }
+    }
+
+    private static final class TopicRecord {
+        private String id;
+        private String title;
+        private final List<Object[]> subtopics = new ArrayList<>();
+    }
+
+    private final class Batches {
+        private final List<Object[]> contentRows = new ArrayList<>();
+        private final List<Object[]> courseRows = new ArrayList<>();
+        private final List<Object[]> topicRows = new ArrayList<>();
+        private final List<Object[]> subtopicRows = new ArrayList<>();
+        private long courses;
+        private long topics;
+        private long subtopics;
+        private int flushes;
+        // whether any row was inserted or updated; the upserts skip rows whose content is unchanged
+        private boolean changed;
+        private long version;
+
+        private void flushIfFull() {
+            if (contentRows.size() + courseRows.size() + topicRows.size() + subtopicRows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        // Parents (and bodies) go first so foreign keys always resolve within the transaction.
+        private void flush() {
+            if (contentRows.isEmpty() && courseRows.isEmpty() && topicRows.isEmpty() && subtopicRows.isEmpty()) {
+                return;
+            }
+            if (!contentRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_CONTENT, contentRows);
+                contentRows.clear();
+            }
+            if (!courseRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_COURSE, courseRows);
+                courses += courseRows.size();
+                courseRows.clear();
+            }
+            if (!topicRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_TOPIC, topicRows);
+                topics += topicRows.size();
+                topicRows.clear();
+            }
+            if (!subtopicRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SUBTOPIC, subtopicRows);
+                subtopics += subtopicRows.size();
+                subtopicRows.clear();
+            }
+            flushes++;
+        }
     }
 }
@@ -1,11 +1,13 @@
 package com.courseplatform.service;
 
+import com.courseplatform.datasource.ReadYourWritesTracker;
 import com.courseplatform.dto.*;
 import com.courseplatform.entity.*;
 import com.courseplatform.exception.ConflictException;
 import com.courseplatform.exception.ForbiddenException;
 import com.courseplatform.exception.NotFoundException;
 import com.courseplatform.repository.*;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +17,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", percentiles = {0.5, 0.99})
 public class EnrollmentService {
 
     @Autowired
@@ -32,8 +35,20 @@ public class EnrollmentService {
     @Autowired
     private SubtopicProgressRepository subtopicProgressRepository;
 
+    @Autowired
+    private CourseTreeLoader courseTreeLoader;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private LookupFilters lookupFilters;
+
     @Transactional
     public EnrollmentResponse enrollInCourse(String courseId, Long userId) {
+        if (!lookupFilters.mightContain(LookupFilters.Key.COURSE, courseId)) {
+            throw new NotFoundException("Course with id '" + courseId + "' does not exist");
+        }
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new NotFoundException("Course with id '" + courseId + "' does not exist"));
 
@@ -49,6 +64,7 @@ public class EnrollmentService {
         enrollment.setCourse(course);
 
         enrollment = enrollmentRepository.save(enrollment);
+        readYourWritesTracker.recordWrite();
 
         return new EnrollmentResponse(
                 enrollment.getId(),
@@ -60,6 +76,9 @@ public class EnrollmentService {
 
     @Transactional
     public SubtopicCompleteResponse markSubtopicComplete(String subtopicId, Long userId) {
+        if (!lookupFilters.mightContain(LookupFilters.Key.SUBTOPIC, subtopicId)) {
+            throw new NotFoundException("Subtopic with id '" + subtopicId + "' does not exist");
+        }
         Subtopic subtopic = subtopicRepository.findById(subtopicId)
                 .orElseThrow(() -> new NotFoundException("Subtopic with id '" + subtopicId + "' does not exist"));
 
@@ -81,6 +100,8 @@ public class EnrollmentService {
         progress.setCompletedAt(LocalDateTime.now());
 
         progress = subtopicProgressRepository.save(progress);
+        // keeps this user's progress reads on the primary until replicas have the update
+        readYourWritesTracker.recordWrite();
 
         return new SubtopicCompleteResponse(
                 subtopicId,
@@ -100,9 +121,7 @@ public class EnrollmentService {
 
         Course course = enrollment.getCourse();
 
-        int totalSubtopics = course.getTopics().stream()
-                .mapToInt(topic -> topic.getSubtopics().size())
-                .sum();
+        int totalSubtopics = courseTreeLoader.countSubtopics(course.getId());
 
         List<SubtopicProgress> progressRecords = subtopicProgressRepository.findByEnrollmentId(enrollmentId);
 
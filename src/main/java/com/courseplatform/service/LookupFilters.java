@@ -0,0 +1,156 @@
+package com.courseplatform.service;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bloom filters over the course ids, subtopic ids and registered emails, so lookups of
+ * keys that do not exist can be answered without a database round trip. A filter has
+ * no false negatives for the keys it was built from or was told about through
+ * {@link #add}; until a filter is built, and if building it fails, every key "might"
+ * exist and callers query the database as before.
+ *
+ * <p>The catalog filters are rebuilt on every {@link CatalogChangedEvent}. Emails
+ * registered on other instances are not seen until the next rebuild, so the email
+ * filter may only be used to skip work that the unique constraint backs up.
+ */
+@Service
+public class LookupFilters {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupFilters.class);
+
+    public enum Key {
+        COURSE("courses", "SELECT id FROM courses"),
+        SUBTOPIC("subtopics", "SELECT id FROM subtopics"),
+        EMAIL("users", "SELECT email FROM users");
+
+        private final String table;
+        private final String keys;
+
+        Key(String table, String keys) {
+            this.table = table;
+            this.keys = keys;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lookup.filters.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lookup.filters.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // filters are sized for this many times the current row count, leaving room for inserts
+    @Value("${lookup.filters.headroom:2}")
+    private int headroom;
+
+    @Value("${lookup.filters.fetch-size:10000}")
+    private int fetchSize;
+
+    private final AtomicReferenceArray<BloomFilter> filters = new AtomicReferenceArray<>(Key.values().length);
+
+    /** False only when {@code value} is certainly not a stored key of this kind. */
+    public boolean mightContain(Key key, String value) {
+        BloomFilter filter = filters.get(key.ordinal());
+        if (filter == null || value == null) {
+            return true;
+        }
+        boolean result = filter.mightContain(value);
+        meterRegistry.counter("lookup.filter.checks", "key", key.name().toLowerCase(),
+                "result", result ? "maybe" : "absent").increment();
+        return result;
+    }
+
+    /** Records a key this instance has just inserted. */
+    public void add(Key key, String value) {
+        BloomFilter filter = filters.get(key.ordinal());
+        if (filter != null && value != null) {
+            filter.put(value);
+        }
+    }
+
+    // After the seeder (a CommandLineRunner) has applied the catalog; filters its change
+    // event already built are kept.
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAll() {
+        if (!enabled) {
+            return;
+        }
+        for (Key key : Key.values()) {
+            if (filters.get(key.ordinal()) == null) {
+                rebuild(key);
+            }
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (enabled) {
+            rebuild(Key.COURSE);
+            rebuild(Key.SUBTOPIC);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lookup.filters.check-interval-ms:60000}")
+    public void rebuildSaturated() {
+        for (Key key : Key.values()) {
+            BloomFilter filter = filters.get(key.ordinal());
+            if (filter != null && filter.saturated()) {
+                rebuild(key);
+            }
+        }
+    }
+
+    /**
+     * Builds a new filter from the table and swaps it in. Keys added to the old filter
+     * while the new one was being read may be missing from it; the callers of
+     * {@link #add} tolerate that (see the class comment).
+     */
+    public void rebuild(Key key) {
+        long started = System.nanoTime();
+        try {
+            // Not read-only, so the primary is read; the transaction lets the driver use a cursor.
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Long rows = transaction.execute(status ->
+                    jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + key.table, Long.class));
+            BloomFilter filter = BloomFilter.create(Math.max(1024, (rows != null ? rows : 0) * headroom),
+                    falsePositiveRate);
+            transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(key.keys);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) rs -> filter.put(rs.getString(1))));
+            filters.set(key.ordinal(), filter);
+            log.info("Built {} lookup filter over {} keys ({} KB) in {} ms", key.name().toLowerCase(), rows,
+                    filter.bitCount() / 8 / 1024, (System.nanoTime() - started) / 1_000_000);
+        } catch (DataAccessException e) {
+            // fail open: without a filter every lookup goes to the database
+            filters.set(key.ordinal(), null);
+            log.warn("Could not build the {} lookup filter: {}", key.name().toLowerCase(), e.getMessage());
+        }
+    }
+}
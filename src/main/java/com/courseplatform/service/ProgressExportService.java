@@ -0,0 +1,253 @@
+package com.courseplatform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams enrollment and subtopic progress changes after a watermark for incremental
+ * exports. A trigger stamps both tables on every insert and update with the writing
+ * transaction's id (migration V7) and a number from the shared {@code progress_change_seq},
+ * which orders the changes within an export.
+ *
+ * <p>The watermark is a transaction id. An export covers the transactions from
+ * {@code since} up to the oldest one still running in its snapshot
+ * ({@code pg_snapshot_xmin}), which becomes the next watermark: every transaction below
+ * it has committed or aborted, so none of its rows can appear later, however long it
+ * ran. A transaction still running is exported once it has finished. The snapshot is
+ * taken on the primary, as a replica's can trail it. Rows are read through a
+ * server-side cursor in {@code fetch-size} chunks and written as they arrive, so memory
+ * use does not depend on the size of the export.
+ */
+@Service
+public class ProgressExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressExportService.class);
+
+    private static final String UPPER_BOUND = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String CHANGES =
+            "SELECT 'enrollment' AS kind, e.change_seq, e.id, e.id AS enrollment_id, e.user_id, e.course_id, " +
+            "NULL AS subtopic_id, NULL::boolean AS completed, e.enrolled_at AS at " +
+            "FROM enrollments e WHERE e.change_xid >= ?::text::xid8 AND e.change_xid < ?::text::xid8 " +
+            "UNION ALL " +
+            "SELECT 'progress', p.change_seq, p.id, p.enrollment_id, e.user_id, e.course_id, " +
+            "p.subtopic_id, p.completed, p.completed_at " +
+            "FROM subtopic_progress p JOIN enrollments e ON e.id = p.enrollment_id " +
+            "WHERE p.change_xid >= ?::text::xid8 AND p.change_xid < ?::text::xid8 " +
+            "ORDER BY change_seq";
+
+    private static final String CSV_HEADER = "type,changeSeq,id,enrollmentId,userId,courseId,subtopicId,completed,at\n";
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${export.progress.fetch-size:1000}")
+    private int fetchSize;
+
+    private TransactionTemplate snapshotTransaction;
+
+    @PostConstruct
+    void init() {
+        // One snapshot for the bound and the rows. Not read-only, so it runs on the primary:
+        // a replica's snapshot can miss transactions the primary has already committed.
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Writes the changes of transactions from {@code since} on to {@code out}. {@code watermark}
+     * receives the next watermark before the first byte is written, so it can go into a
+     * response header.
+     *
+     * @return the number of changes written
+     */
+    public long export(long since, Format format, LongConsumer watermark, OutputStream out) {
+        long started = System.nanoTime();
+        long from = Math.max(0, since);
+        Long rows = snapshotTransaction.execute(status -> {
+            Long bound = jdbcTemplate.queryForObject(UPPER_BOUND, Long.class);
+            long upper = Math.max(from, bound != null ? bound : 0);
+            watermark.accept(upper);
+            if (upper == from) {
+                return 0L;
+            }
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+                ChangeWriter changes = format == Format.CSV ? new CsvChangeWriter(writer) : new JsonChangeWriter(writer);
+                jdbcTemplate.query(connection -> {
+                    // the PostgreSQL driver only uses a cursor inside a transaction
+                    PreparedStatement statement = connection.prepareStatement(CHANGES);
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, from);
+                    statement.setLong(2, upper);
+                    statement.setLong(3, from);
+                    statement.setLong(4, upper);
+                    return statement;
+                }, changes);
+                changes.finish();
+                return changes.rows;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write the progress export", e);
+            }
+        });
+
+        long written = rows != null ? rows : 0;
+        meterRegistry.counter("export.progress.rows", "format", format.name().toLowerCase()).increment(written);
+        log.info("Exported {} progress changes after {} as {} in {} ms", written, since, format,
+                (System.nanoTime() - started) / 1_000_000);
+        return written;
+    }
+
+    private abstract static class ChangeWriter implements RowCallbackHandler {
+        long rows;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            Timestamp at = rs.getTimestamp("at");
+            boolean completed = rs.getBoolean("completed");
+            Boolean completedOrNull = rs.wasNull() ? null : completed;
+            try {
+                write(rs.getString("kind"), rs.getLong("change_seq"), rs.getLong("id"), rs.getLong("enrollment_id"),
+                        rs.getLong("user_id"), rs.getString("course_id"), rs.getString("subtopic_id"),
+                        completedOrNull, at != null ? at.toLocalDateTime().toString() : null);
+            } catch (IOException e) {
+                // the client went away; stop reading rows
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+
+        abstract void write(String kind, long changeSeq, long id, long enrollmentId, long userId, String courseId,
+                            String subtopicId, Boolean completed, String at) throws IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    private final class JsonChangeWriter extends ChangeWriter {
+        private final JsonGenerator generator;
+
+        JsonChangeWriter(Writer writer) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        void write(String kind, long changeSeq, long id, long enrollmentId, long userId, String courseId,
+                   String subtopicId, Boolean completed, String at) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", kind);
+            generator.writeNumberField("changeSeq", changeSeq);
+            generator.writeNumberField("id", id);
+            generator.writeNumberField("enrollmentId", enrollmentId);
+            generator.writeNumberField("userId", userId);
+            generator.writeStringField("courseId", courseId);
+            if (subtopicId != null) {
+                generator.writeStringField("subtopicId", subtopicId);
+                generator.writeBooleanField("completed", Boolean.TRUE.equals(completed));
+                generator.writeStringField("completedAt", at);
+            } else {
+                generator.writeStringField("enrolledAt", at);
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        void finish() throws IOException {
+            // terminate the last line; an export without changes has no body at all
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+
+    private static final class CsvChangeWriter extends ChangeWriter {
+        private final Writer writer;
+
+        CsvChangeWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        void write(String kind, long changeSeq, long id, long enrollmentId, long userId, String courseId,
+                   String subtopicId, Boolean completed, String at) throws IOException {
+            writer.write(kind);
+            writer.write(',');
+            writer.write(Long.toString(changeSeq));
+            writer.write(',');
+            writer.write(Long.toString(id));
+            writer.write(',');
+            writer.write(Long.toString(enrollmentId));
+            writer.write(',');
+            writer.write(Long.toString(userId));
+            writer.write(',');
+            writeField(courseId);
+            writer.write(',');
+            writeField(subtopicId);
+            writer.write(',');
+            writer.write(completed != null ? completed.toString() : "");
+            writer.write(',');
+            writer.write(at != null ? at : "");
+            writer.write('\n');
+        }
+
+        // RFC 4180 quoting for the catalog ids, which come from the catalog file
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
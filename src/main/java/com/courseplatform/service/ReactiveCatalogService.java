@@ -0,0 +1,163 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.*;
+import com.courseplatform.exception.NotFoundException;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Non-blocking counterpart of the public {@link CourseService} reads, querying the same
+ * tables over R2DBC. Each query is a single join streamed with a bounded fetch size, so
+ * rows are only pulled from the database as fast as the client consumes the response.
+ */
+@Service
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true")
+public class ReactiveCatalogService {
+
+    private static final String COURSE_SUMMARIES =
+            "SELECT c.id, c.title, c.description, " +
+            "COUNT(DISTINCT t.id) AS topic_count, COUNT(s.id) AS subtopic_count " +
+            "FROM courses c " +
+            "LEFT JOIN topics t ON t.course_id = c.id " +
+            "LEFT JOIN subtopics s ON s.topic_id = t.id " +
+            "GROUP BY c.id, c.title, c.description " +
+            "ORDER BY c.id";
+
+    private static final String COURSE_DETAIL =
+            "SELECT c.id, c.title, c.description, t.id AS topic_id, t.title AS topic_title, " +
+            "s.id AS subtopic_id, s.title AS subtopic_title, b.body AS content " +
+            "FROM courses c " +
+            "LEFT JOIN topics t ON t.course_id = c.id " +
+            "LEFT JOIN subtopics s ON s.topic_id = t.id " +
+            "LEFT JOIN subtopic_content b ON b.hash = s.content_hash " +
+            "WHERE c.id = :courseId " +
+            "ORDER BY t.position, t.id, s.position, s.id";
+
+    // Only subtopic title and content produce matches, so only those rows are fetched.
+    private static final String SEARCH =
+            "SELECT c.id AS course_id, c.title AS course_title, t.title AS topic_title, " +
+            "s.id AS subtopic_id, s.title AS subtopic_title, b.body AS content " +
+            "FROM subtopics s " +
+            "JOIN subtopic_content b ON b.hash = s.content_hash " +
+            "JOIN topics t ON t.id = s.topic_id " +
+            "JOIN courses c ON c.id = t.course_id " +
+            "WHERE LOWER(s.title) LIKE :pattern OR LOWER(b.body) LIKE :pattern " +
+            "ORDER BY c.id, t.position, t.id, s.position, s.id";
+
+    @Autowired
+    private DatabaseClient catalogDatabaseClient;
+
+    @Value("${catalog.reactive.fetch-size:100}")
+    private int fetchSize;
+
+    public Flux<CourseSummary> streamCourses() {
+        return catalogDatabaseClient.sql(COURSE_SUMMARIES)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(row -> new CourseSummary(
+                        row.get("id", String.class),
+                        row.get("title", String.class),
+                        row.get("description", String.class),
+                        row.get("topic_count", Long.class).intValue(),
+                        row.get("subtopic_count", Long.class).intValue()
+                ))
+                .all();
+    }
+
+    public Mono<CourseDetailResponse> getCourse(String courseId) {
+        return catalogDatabaseClient.sql(COURSE_DETAIL)
+                .bind("courseId", courseId)
+                .map(DetailRow::from)
+                .all()
+                .collectList()
+                .flatMap(rows -> rows.isEmpty()
+                        ? Mono.error(new NotFoundException("Course with id '" + courseId + "' does not exist"))
+                        : Mono.just(toDetail(rows)));
+    }
+
+    /**
+     * Streams one {@link SearchResult} per matching course. Rows arrive ordered by course,
+     * so each result is emitted as soon as the next course's rows begin.
+     */
+    public Flux<SearchResult> streamSearch(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return Flux.empty();
+        }
+        String lowerQuery = query.trim().toLowerCase();
+
+        return catalogDatabaseClient.sql(SEARCH)
+                .bind("pattern", "%" + lowerQuery + "%")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(SearchRow::from)
+                .all()
+                .bufferUntilChanged(SearchRow::courseId)
+                .map(rows -> {
+                    List<SearchMatch> matches = new ArrayList<>();
+                    for (SearchRow row : rows) {
+                        SearchMatch match = SearchMatcher.match(lowerQuery, row.topicTitle(),
+                                row.subtopicId(), row.subtopicTitle(), row.content());
+                        if (match != null) {
+                            matches.add(match);
+                        }
+                    }
+                    return new SearchResult(rows.get(0).courseId(), rows.get(0).courseTitle(), matches);
+                })
+                .filter(result -> !result.getMatches().isEmpty());
+    }
+
+    private static CourseDetailResponse toDetail(List<DetailRow> rows) {
+        DetailRow first = rows.get(0);
+        List<TopicDetail> topics = new ArrayList<>();
+        TopicDetail topic = null;
+        for (DetailRow row : rows) {
+            if (row.topicId() == null) {
+                continue;
+            }
+            if (topic == null || !Objects.equals(topic.getId(), row.topicId())) {
+                topic = new TopicDetail(row.topicId(), row.topicTitle(), new ArrayList<>());
+                topics.add(topic);
+            }
+            if (row.subtopicId() != null) {
+                topic.getSubtopics().add(new SubtopicDetail(row.subtopicId(), row.subtopicTitle(), row.content()));
+            }
+        }
+        return new CourseDetailResponse(first.courseId(), first.title(), first.description(), topics);
+    }
+
+    private record DetailRow(String courseId, String title, String description, String topicId, String topicTitle,
+                             String subtopicId, String subtopicTitle, String content) {
+        static DetailRow from(Readable row) {
+            return new DetailRow(
+                    row.get("id", String.class),
+                    row.get("title", String.class),
+                    row.get("description", String.class),
+                    row.get("topic_id", String.class),
+                    row.get("topic_title", String.class),
+                    row.get("subtopic_id", String.class),
+                    row.get("subtopic_title", String.class),
+                    row.get("content", String.class));
+        }
+    }
+
+    private record SearchRow(String courseId, String courseTitle, String topicTitle,
+                             String subtopicId, String subtopicTitle, String content) {
+        static SearchRow from(Readable row) {
+            return new SearchRow(
+                    row.get("course_id", String.class),
+                    row.get("course_title", String.class),
+                    row.get("topic_title", String.class),
+                    row.get("subtopic_id", String.class),
+                    row.get("subtopic_title", String.class),
+                    row.get("content", String.class));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.SearchMatch;
+
+/**
+ * Classifies a subtopic against a search query and builds its snippet. Shared by the
+ * JPA and the reactive search paths so both return identical matches.
+ */
+final class SearchMatcher {
+
+    private SearchMatcher() {
+    }
+
+    /** Returns the match for this subtopic, or null when neither title nor content contains the query. */
+    static SearchMatch match(String lowerQuery, String topicTitle, String subtopicId, String subtopicTitle, String content) {
+        if (subtopicTitle.toLowerCase().contains(lowerQuery)) {
+            String snippet = content.length() > 150
+                    ? content.substring(0, 150) + "..."
+                    : content;
+
+            return new SearchMatch("subtopic", topicTitle, subtopicId, subtopicTitle, snippet);
+        }
+
+        int index = content.toLowerCase().indexOf(lowerQuery);
+        if (index < 0) {
+            return null;
+        }
+        int start = Math.max(0, index - 50);
+        int end = Math.min(content.length(), index + 100);
+        String snippet = (start > 0 ? "..." : "") +
+                content.substring(start, end) +
+                (end < content.length() ? "..." : "");
+
+        return new SearchMatch("content", topicTitle, subtopicId, subtopicTitle, snippet);
+    }
+}
@@ -0,0 +1,103 @@
+package com.courseplatform.service;
+
+import com.courseplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls. The first caller for a key runs the loader on
+ * its own thread; callers arriving while it runs wait for and share its result, or
+ * its exception. Nothing is cached: once the call completes the next caller starts a
+ * new one. Waiting callers give up after the flight's timeout
+ * ({@code single-flight.timeouts}, falling back to {@code single-flight.timeout-ms}).
+ * Loaders must not run inside the caller's transaction, otherwise a follower could be
+ * handed a result its own transaction would not have seen.
+ */
+@Component
+public class SingleFlight {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${single-flight.timeout-ms:5000}")
+    private long defaultTimeoutMs;
+
+    // comma-separated "flight=timeoutMs" entries
+    @Value("${single-flight.timeouts:}")
+    private String timeouts;
+
+    private final Map<String, Long> timeoutsByFlight = new HashMap<>();
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String entry : timeouts.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                timeoutsByFlight.put(entry.substring(0, separator).trim(),
+                        Long.parseLong(entry.substring(separator + 1).trim()));
+            }
+        }
+        meterRegistry.gaugeMapSize("single-flight.in-flight", Tags.empty(), inFlight);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String flight, Object key, Supplier<T> loader) {
+        Key callKey = new Key(flight, key);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(callKey, call);
+        if (existing != null) {
+            meterRegistry.counter("single-flight.calls", "flight", flight, "role", "follower").increment();
+            return (T) await(flight, existing);
+        }
+
+        meterRegistry.counter("single-flight.calls", "flight", flight, "role", "leader").increment();
+        try {
+            T result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(callKey, call);
+        }
+    }
+
+    private Object await(String flight, CompletableFuture<Object> call) {
+        long timeoutMs = timeoutsByFlight.getOrDefault(flight, defaultTimeoutMs);
+        try {
+            return call.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter("single-flight.timeouts", "flight", flight).increment();
+            throw new TooManyRequestsException("The request is taking too long, please retry shortly", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + flight, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(flight + " failed", e.getCause());
+        }
+    }
+
+    private record Key(String flight, Object key) {
+    }
+}
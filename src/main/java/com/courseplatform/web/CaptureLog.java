@@ -0,0 +1,203 @@
+package com.courseplatform.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only binary log of captured requests, split into segment files of about
+ * {@code segmentBytes}. Whenever a segment is started, the oldest segments are deleted
+ * until the directory holds at most {@code maxBytes}. The load test's replay tool reads
+ * the same format ({@code CaptureReader}); change both together.
+ *
+ * <pre>
+ * segment   int magic, int format, long startEpochMicros, then records until EOF
+ * record    varlong zigzag start (micros after the previous record's start, or the
+ *           segment's for the first), byte method, varint status, varint durationMicros,
+ *           long principal (0 = anonymous), varint routeRef [+ string when new],
+ *           string path, string query
+ * string    varint byte length, UTF-8 bytes
+ * </pre>
+ *
+ * Route patterns are interned per segment: a ref equal to the number of routes seen so
+ * far introduces the next route and is followed by its string. Records are appended when
+ * requests complete, so start times are not in order; the replay tool sorts them. A
+ * torn last record is ignored by the reader.
+ */
+final class CaptureLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureLog.class);
+
+    static final int MAGIC = 0x43505231; // "CPR1"
+    static final int FORMAT = 1;
+    static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final Map<String, Integer> routes = new HashMap<>();
+
+    private CountingOutput out;
+    private long previousStartMicros;
+    private int nextSegment;
+
+    CaptureLog(Path directory, long segmentBytes, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(file -> file.getFileName().toString().matches("capture-\\d+\\.bin"))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        if (!segments.isEmpty()) {
+            String last = segments.getLast().getFileName().toString();
+            nextSegment = Integer.parseInt(last.substring("capture-".length(), last.length() - ".bin".length())) + 1;
+        }
+    }
+
+    /** Appends one request; returns false when it could not be written. */
+    boolean append(long startEpochMicros, String method, int status, long durationMicros, long principal,
+                   String route, String path, String query) {
+        int methodCode = METHODS.indexOf(method);
+        if (methodCode < 0) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (out == null || out.written() >= segmentBytes) {
+                roll(startEpochMicros);
+            }
+            writeVarLong(zigzag(startEpochMicros - previousStartMicros));
+            previousStartMicros = startEpochMicros;
+            out.writeByte(methodCode);
+            writeVarLong(status);
+            writeVarLong(Math.max(0, durationMicros));
+            out.writeLong(principal);
+            Integer routeRef = routes.get(route);
+            if (routeRef == null) {
+                writeVarLong(routes.size());
+                writeString(route);
+                routes.put(route, routes.size());
+            } else {
+                writeVarLong(routeRef);
+            }
+            writeString(path);
+            writeString(query != null ? query : "");
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to append to the capture log in {}: {}", directory, e.getMessage());
+            closeSegment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void flush() {
+        lock.lock();
+        try {
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to flush the capture log in {}: {}", directory, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll(long startEpochMicros) throws IOException {
+        closeSegment();
+        Path file = directory.resolve(String.format("capture-%06d.bin", nextSegment++));
+        segments.add(file);
+        trim();
+        out = new CountingOutput(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(startEpochMicros);
+        previousStartMicros = startEpochMicros;
+        routes.clear();
+    }
+
+    // Keeps room for one more full segment within maxBytes.
+    private void trim() throws IOException {
+        long total = 0;
+        for (Path segment : segments) {
+            total += Files.exists(segment) ? Files.size(segment) : 0;
+        }
+        while (segments.size() > 1 && total + segmentBytes > maxBytes) {
+            Path oldest = segments.removeFirst();
+            total -= Files.exists(oldest) ? Files.size(oldest) : 0;
+            Files.deleteIfExists(oldest);
+        }
+    }
+
+    private void closeSegment() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.debug("Closing capture segment failed", e);
+        }
+        out = null;
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static final class CountingOutput extends DataOutputStream {
+        private CountingOutput(BufferedOutputStream out) {
+            super(out);
+        }
+
+        private long written() {
+            return written;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.courseplatform.web;
+
+import com.courseplatform.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load before it reaches the controllers. Each endpoint group (catalog reads,
+ * search, progress, auth) has its own {@link GradientConcurrencyLimit}, so a slow
+ * database drags down the limit of the groups that use it instead of letting requests
+ * pile up on server threads. Requests over the limit get 503 with {@code Retry-After}
+ * straight away. Anything outside the groups, health checks included, is never limited.
+ * <p>
+ * Content and bundle downloads are a group of their own with a fixed cap: how long they
+ * take depends on the client's bandwidth, not on the database, so their latency would
+ * only mislead a gradient.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String CATALOG = "catalog";
+    private static final String SEARCH = "search";
+    private static final String PROGRESS = "progress";
+    private static final String AUTH = "auth";
+    private static final String DOWNLOAD = "download";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${concurrency.limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency.limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${concurrency.limit.min:4}")
+    private int minLimit;
+
+    // comma-separated "group=maximum" entries
+    @Value("${concurrency.limit.max:catalog=200,search=50,progress=100,auth=50}")
+    private String maxLimits;
+
+    @Value("${concurrency.limit.downloads:64}")
+    private int downloadLimit;
+
+    @Value("${concurrency.limit.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private final Map<String, GradientConcurrencyLimit> limits = new HashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String entry : maxLimits.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                String group = entry.substring(0, separator).trim();
+                int maxLimit = Integer.parseInt(entry.substring(separator + 1).trim());
+                register(group, new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit));
+            }
+        }
+        // minimum = maximum: neither the probes nor the gradient can move it
+        register(DOWNLOAD, new GradientConcurrencyLimit(downloadLimit, downloadLimit, downloadLimit));
+    }
+
+    private void register(String group, GradientConcurrencyLimit limit) {
+        limits.put(group, limit);
+
+        Gauge.builder("http.server.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in-flight", limit, GradientConcurrencyLimit::inFlight)
+                .description("Requests currently admitted")
+                .tag("group", group)
+                .register(meterRegistry);
+        rejections.put(group, Counter.builder("http.server.concurrency.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("group", group)
+                .register(meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !limits.containsKey(group(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String group = group(request);
+        GradientConcurrencyLimit limit = limits.get(group);
+        int inFlightAtStart = limit.tryAcquire();
+        if (inFlightAtStart < 0) {
+            rejections.get(group).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Release release = new Release(limit, start, inFlightAtStart);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // streamed (NDJSON) responses hold their slot until the stream completes
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse("Service Unavailable",
+                "The server is overloaded, please retry later", LocalDateTime.now());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String group(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.equals("/api/search") || path.startsWith("/api/search/")) {
+            return SEARCH;
+        }
+        if ((path.startsWith("/api/subtopics/") && path.endsWith("/content"))
+                || (path.startsWith("/api/courses/") && path.endsWith("/bundle"))) {
+            return DOWNLOAD;
+        }
+        if (path.startsWith("/api/subtopics/") || path.startsWith("/api/enrollments/")
+                || (path.startsWith("/api/courses/") && path.endsWith("/enroll"))) {
+            return PROGRESS;
+        }
+        if ((path.equals("/api/courses") || path.startsWith("/api/courses/") || path.startsWith("/api/catalog/"))
+                && "GET".equals(method)) {
+            return CATALOG;
+        }
+        return null;
+    }
+
+    private static final class Release implements AsyncListener, Runnable {
+        private final GradientConcurrencyLimit limit;
+        private final long start;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Release(GradientConcurrencyLimit limit, long start, int inFlightAtStart) {
+            this.limit = limit;
+            this.start = start;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start, inFlightAtStart);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
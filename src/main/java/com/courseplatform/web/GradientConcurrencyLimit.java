@@ -0,0 +1,131 @@
+package com.courseplatform.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency. Latencies are averaged over
+ * sample windows (at least {@code MIN_WINDOW_SAMPLES} requests and
+ * {@code MIN_WINDOW_NANOS}), and the fastest window stands in for the no-load latency.
+ * While a window stays within {@code TOLERANCE} of it the limit grows by about its
+ * square root; once requests start queueing the limit is scaled down by the ratio of
+ * the two, to no less than half per window, smoothed so one slow window does not halve
+ * the limit. Every {@code PROBE_WINDOWS} windows the limit drops to the minimum for a
+ * moment to re-measure the no-load latency, so a database that got permanently slower
+ * (or faster) resets the baseline instead of pinning the limit at the minimum.
+ */
+final class GradientConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int PROBE_WINDOWS = 300;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final long MIN_WINDOW_NANOS = 100_000_000L;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile int limit;
+
+    // guarded by lock
+    private double estimatedLimit;
+    private double noLoadRttNanos;
+    // probe right after the first window: the initial limit may already be queueing
+    private int windowsSinceProbe = PROBE_WINDOWS - 1;
+    private int probeWindowsLeft;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /** Takes a slot, or returns -1 when the limit is reached; otherwise the in-flight count before this request. */
+    int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /** Returns the slot taken by {@link #tryAcquire()} and feeds the request's latency to the limit. */
+    void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long rttNanos, int inFlightAtStart) {
+        lock.lock();
+        try {
+            updateLocked(rttNanos, inFlightAtStart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLocked(long rttNanos, int inFlightAtStart) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart + 1);
+        long now = System.nanoTime();
+        if (windowSamples < MIN_WINDOW_SAMPLES || now - windowStart < MIN_WINDOW_NANOS) {
+            return;
+        }
+        double windowRtt = (double) windowRttSum / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        if (probeWindowsLeft > 0) {
+            // the first probe window drains requests admitted under the old limit
+            if (--probeWindowsLeft == 0) {
+                noLoadRttNanos = windowRtt;
+                limit = (int) estimatedLimit;
+            }
+            return;
+        }
+        if (noLoadRttNanos == 0 || windowRtt < noLoadRttNanos) {
+            noLoadRttNanos = windowRtt;
+        }
+        if (++windowsSinceProbe >= PROBE_WINDOWS) {
+            windowsSinceProbe = 0;
+            probeWindowsLeft = 2;
+            limit = minLimit;
+            return;
+        }
+
+        // Too little traffic to tell whether a higher limit would be safe.
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * noLoadRttNanos / windowRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,113 @@
+package com.courseplatform.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal protocol buffers wire-format encoder covering the scalar types used by the
+ * response schema in {@code proto/course_platform.proto}. Follows proto3 rules: fields
+ * holding their default value (null, 0, 0.0) are not written.
+ */
+final class ProtoWriter {
+
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    ProtoWriter() {
+        this(256);
+    }
+
+    ProtoWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    ProtoWriter string(int field, String value) {
+        if (value != null && !value.isEmpty()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            tag(field, LENGTH_DELIMITED);
+            varint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+        return this;
+    }
+
+    ProtoWriter int32(int field, int value) {
+        if (value != 0) {
+            tag(field, VARINT);
+            // negative int32 values are sign-extended to ten bytes, as protobuf requires
+            varint(value);
+        }
+        return this;
+    }
+
+    ProtoWriter int64(int field, Long value) {
+        if (value != null && value != 0) {
+            tag(field, VARINT);
+            varint(value);
+        }
+        return this;
+    }
+
+    ProtoWriter fixedDouble(int field, double value) {
+        if (Double.doubleToRawLongBits(value) != 0) {
+            tag(field, FIXED64);
+            long bits = Double.doubleToRawLongBits(value);
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[position++] = (byte) (bits >>> (8 * i));
+            }
+        }
+        return this;
+    }
+
+    /** Writes {@code message} as an embedded message; repeated fields call this once per element. */
+    ProtoWriter message(int field, ProtoWriter message) {
+        tag(field, LENGTH_DELIMITED);
+        varint(message.position);
+        write(message.buffer, 0, message.position);
+        return this;
+    }
+
+    int size() {
+        return position;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, position);
+    }
+
+    private void tag(int field, int wireType) {
+        varint((field << 3) | wireType);
+    }
+
+    private void varint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void write(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensure(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.courseplatform.web;
+
+import com.courseplatform.dto.*;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes the course, search, progress and error DTOs as protocol buffers for clients
+ * sending {@code Accept: application/x-protobuf}. The encoding follows
+ * {@code proto/course_platform.proto}, which clients generate their readers from; the
+ * field numbers below must match it. Responses only: request bodies stay JSON.
+ */
+public class ProtobufResponseConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final Map<Class<?>, Function<Object, ProtoWriter>> ENCODERS = Map.of(
+            CourseListResponse.class, value -> courseList((CourseListResponse) value),
+            CourseDetailResponse.class, value -> courseDetail((CourseDetailResponse) value),
+            SearchResponse.class, value -> search((SearchResponse) value),
+            ProgressResponse.class, value -> progress((ProgressResponse) value),
+            ErrorResponse.class, value -> error((ErrorResponse) value)
+    );
+
+    public ProtobufResponseConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    /** Encodes one of the supported DTOs; also used by the serialization benchmarks. */
+    public static byte[] encode(Object value) {
+        return ENCODERS.get(value.getClass()).apply(value).toByteArray();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ENCODERS.containsKey(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        ProtoWriter message = ENCODERS.get(value.getClass()).apply(value);
+        outputMessage.getHeaders().setContentLength(message.size());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    private static ProtoWriter courseList(CourseListResponse response) {
+        ProtoWriter out = new ProtoWriter();
+        for (CourseSummary course : response.getCourses()) {
+            out.message(1, new ProtoWriter()
+                    .string(1, course.getId())
+                    .string(2, course.getTitle())
+                    .string(3, course.getDescription())
+                    .int32(4, course.getTopicCount())
+                    .int32(5, course.getSubtopicCount()));
+        }
+        return out;
+    }
+
+    private static ProtoWriter courseDetail(CourseDetailResponse course) {
+        ProtoWriter out = new ProtoWriter(4096)
+                .string(1, course.getId())
+                .string(2, course.getTitle())
+                .string(3, course.getDescription());
+        for (TopicDetail topic : course.getTopics()) {
+            ProtoWriter topicMessage = new ProtoWriter(1024)
+                    .string(1, topic.getId())
+                    .string(2, topic.getTitle());
+            for (SubtopicDetail subtopic : topic.getSubtopics()) {
+                topicMessage.message(3, new ProtoWriter(1024)
+                        .string(1, subtopic.getId())
+                        .string(2, subtopic.getTitle())
+                        .string(3, subtopic.getContent()));
+            }
+            out.message(4, topicMessage);
+        }
+        return out;
+    }
+
+    private static ProtoWriter search(SearchResponse response) {
+        ProtoWriter out = new ProtoWriter().string(1, response.getQuery());
+        for (SearchResult result : response.getResults()) {
+            ProtoWriter resultMessage = new ProtoWriter()
+                    .string(1, result.getCourseId())
+                    .string(2, result.getCourseTitle());
+            for (SearchMatch match : result.getMatches()) {
+                resultMessage.message(3, new ProtoWriter()
+                        .string(1, match.getType())
+                        .string(2, match.getTopicTitle())
+                        .string(3, match.getSubtopicId())
+                        .string(4, match.getSubtopicTitle())
+                        .string(5, match.getSnippet()));
+            }
+            out.message(2, resultMessage);
+        }
+        return out;
+    }
+
+    private static ProtoWriter progress(ProgressResponse progress) {
+        ProtoWriter out = new ProtoWriter()
+                .int64(1, progress.getEnrollmentId())
+                .string(2, progress.getCourseId())
+                .string(3, progress.getCourseTitle())
+                .int32(4, progress.getTotalSubtopics())
+                .int32(5, progress.getCompletedSubtopics())
+                .fixedDouble(6, progress.getCompletionPercentage());
+        for (CompletedItem item : progress.getCompletedItems()) {
+            out.message(7, new ProtoWriter()
+                    .string(1, item.getSubtopicId())
+                    .string(2, item.getSubtopicTitle())
+                    .string(3, timestamp(item.getCompletedAt())));
+        }
+        return out;
+    }
+
+    private static ProtoWriter error(ErrorResponse error) {
+        return new ProtoWriter()
+                .string(1, error.getError())
+                .string(2, error.getMessage())
+                .string(3, timestamp(error.getTimestamp()));
+    }
+
+    // Jackson's format: LocalDateTime.toString() would drop zero seconds
+    static String timestamp(LocalDateTime value) {
+        return value != null ? value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+}
@@ -0,0 +1,220 @@
+package com.courseplatform.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opt-in capture of live traffic for replay against a test instance (see the load
+ * test's {@code replay} command). Each request's method, path, query string, route
+ * pattern, status, start time and duration are appended to a {@link CaptureLog}, together
+ * with an anonymous principal: a keyed hash of the authenticated email, which lets the
+ * replay keep one user's requests together without the log naming anyone. Bodies and
+ * headers are not captured. Placed ahead of load shedding, so shed requests are captured
+ * with their 503, and behind the query budget, which counts the statements of both.
+ * Streamed (async) requests are captured when the stream completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestRecorder extends OncePerRequestFilter {
+
+    /** Set by the authentication filter to the email of the authenticated user. */
+    public static final String PRINCIPAL_ATTRIBUTE = RequestRecorder.class.getName() + ".principal";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestRecorder.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${recorder.enabled:false}")
+    private boolean enabled;
+
+    @Value("${recorder.path:data/capture}")
+    private Path directory;
+
+    @Value("${recorder.segment-bytes:16777216}")
+    private long segmentBytes;
+
+    @Value("${recorder.max-bytes:268435456}")
+    private long maxBytes;
+
+    // comma-separated path prefixes that are never captured
+    @Value("${recorder.exclude:/actuator,/swagger-ui,/v3/api-docs}")
+    private String exclude;
+
+    // HMAC key for principals; a random key per start when empty, so principals of
+    // different runs cannot be linked
+    @Value("${recorder.principal-key:}")
+    private String principalKey;
+
+    private CaptureLog captureLog;
+    private List<String> excludedPrefixes;
+    private SecretKeySpec principalSecret;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        excludedPrefixes = Arrays.stream(exclude.split(",")).map(String::trim).filter(prefix -> !prefix.isEmpty()).toList();
+        byte[] key;
+        if (principalKey.isEmpty()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = principalKey.getBytes(StandardCharsets.UTF_8);
+        }
+        principalSecret = new SecretKeySpec(key, "HmacSHA256");
+        try {
+            captureLog = new CaptureLog(directory, segmentBytes, maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the capture directory " + directory, e);
+        }
+        log.info("Capturing requests to {} (at most {} bytes)", directory, maxBytes);
+    }
+
+    @PreDestroy
+    void close() {
+        if (captureLog != null) {
+            captureLog.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recorder.flush-interval-ms:1000}")
+    public void flush() {
+        if (captureLog != null) {
+            captureLog.flush();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (captureLog == null) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        for (String prefix : excludedPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Record record = new Record(request, response, Instant.now(), System.nanoTime());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // the status and duration of a streamed response are known once it completes
+                request.getAsyncContext().addListener(record);
+            } else {
+                record.run();
+            }
+        }
+    }
+
+    private void append(HttpServletRequest request, HttpServletResponse response, Instant startedAt, long started) {
+        long durationMicros = (System.nanoTime() - started) / 1_000;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        boolean written = captureLog.append(
+                ChronoUnit.MICROS.between(Instant.EPOCH, startedAt),
+                request.getMethod(),
+                response.getStatus(),
+                durationMicros,
+                principal(request.getAttribute(PRINCIPAL_ATTRIBUTE)),
+                pattern != null ? pattern.toString() : "UNKNOWN",
+                request.getRequestURI(),
+                request.getQueryString());
+        meterRegistry.counter("http.server.recorder.records", "result", written ? "written" : "dropped").increment();
+    }
+
+    private long principal(Object email) {
+        if (email == null) {
+            return 0;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(principalSecret);
+            long id = ByteBuffer.wrap(mac.doFinal(email.toString().getBytes(StandardCharsets.UTF_8))).getLong();
+            return id != 0 ? id : 1;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private final class Record implements AsyncListener, Runnable {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final Instant startedAt;
+        private final long started;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private Record(HttpServletRequest request, HttpServletResponse response, Instant startedAt, long started) {
+            this.request = request;
+            this.response = response;
+            this.startedAt = startedAt;
+            this.started = started;
+        }
+
+        @Override
+        public void run() {
+            if (recorded.compareAndSet(false, true)) {
+                append(request, response, startedAt, started);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
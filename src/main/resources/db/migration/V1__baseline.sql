@@ -0,0 +1,70 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update. Every statement
+-- is idempotent so databases created that way are brought under Flyway unchanged
+-- (spring.flyway.baseline-on-migrate with baseline version 0 runs this script on them).
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS courses (
+    id          VARCHAR(255) NOT NULL PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS topics (
+    id          VARCHAR(255) NOT NULL PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    course_id   VARCHAR(255) NOT NULL REFERENCES courses (id)
+);
+
+CREATE TABLE IF NOT EXISTS subtopics (
+    id          VARCHAR(255) NOT NULL PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    content     TEXT,
+    topic_id    VARCHAR(255) NOT NULL REFERENCES topics (id)
+);
+
+CREATE TABLE IF NOT EXISTS enrollments (
+    id          BIGSERIAL    NOT NULL PRIMARY KEY,
+    user_id     BIGINT       NOT NULL REFERENCES users (id),
+    course_id   VARCHAR(255) NOT NULL REFERENCES courses (id),
+    enrolled_at TIMESTAMP(6) NOT NULL,
+    UNIQUE (user_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS subtopic_progress (
+    id            BIGSERIAL    NOT NULL PRIMARY KEY,
+    enrollment_id BIGINT       NOT NULL REFERENCES enrollments (id),
+    subtopic_id   VARCHAR(255) NOT NULL REFERENCES subtopics (id),
+    completed     BOOLEAN      NOT NULL,
+    completed_at  TIMESTAMP(6),
+    UNIQUE (enrollment_id, subtopic_id)
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id    VARCHAR(64)              NOT NULL PRIMARY KEY,
+    user_id     BIGINT                   NOT NULL,
+    expires_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_token_epochs (
+    user_id     BIGINT                   NOT NULL PRIMARY KEY,
+    not_before  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id          INTEGER                  NOT NULL PRIMARY KEY,
+    version     BIGINT                   NOT NULL,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- User ids once came from an IDENTITY column; on databases that already hold users a
+-- freshly created users_seq starts at 1, so move it past the highest existing id.
+SELECT setval('users_seq', (SELECT MAX(id) FROM users) + 50)
+WHERE (SELECT last_value FROM users_seq) < (SELECT COALESCE(MAX(id), 0) FROM users);
@@ -0,0 +1,20 @@
+-- One index per repository lookup that the primary keys and unique constraints do not
+-- already serve. Covered without a new index:
+--   enrollments (user_id, course_id)          findByUserIdAndCourseId, existsByUserIdAndCourseId,
+--                                             and any lookup by user_id (leading column)
+--   subtopic_progress (enrollment_id, ...)    findByEnrollmentId, findByEnrollmentIdAndSubtopicId
+--   users (email)                             findByEmail, existsByEmail, findExistingEmails
+
+-- Course.topics and Topic.subtopics collection loads (and the search joins)
+CREATE INDEX IF NOT EXISTS idx_topics_course_id ON topics (course_id);
+CREATE INDEX IF NOT EXISTS idx_subtopics_topic_id ON subtopics (topic_id);
+
+-- Foreign keys checked when a course or subtopic is deleted or re-keyed
+CREATE INDEX IF NOT EXISTS idx_enrollments_course_id ON enrollments (course_id);
+CREATE INDEX IF NOT EXISTS idx_subtopic_progress_subtopic_id ON subtopic_progress (subtopic_id);
+
+-- RevokedTokenRepository.findByExpiresAtAfter / deleteExpired
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- UserTokenEpochRepository.deleteOlderThan
+CREATE INDEX IF NOT EXISTS idx_user_token_epochs_not_before ON user_token_epochs (not_before);
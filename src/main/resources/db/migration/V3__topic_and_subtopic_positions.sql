@@ -0,0 +1,20 @@
+-- Explicit ordering for topics within a course and subtopics within a topic, as given by
+-- the catalog file. Existing rows are numbered in id order, the order they were served in.
+
+ALTER TABLE topics ADD COLUMN IF NOT EXISTS position INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE subtopics ADD COLUMN IF NOT EXISTS position INTEGER NOT NULL DEFAULT 0;
+
+UPDATE topics t SET position = numbered.position
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY course_id ORDER BY id) - 1 AS position FROM topics) numbered
+WHERE t.id = numbered.id;
+
+UPDATE subtopics s SET position = numbered.position
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY topic_id ORDER BY id) - 1 AS position FROM subtopics) numbered
+WHERE s.id = numbered.id;
+
+-- The parent lookups now also read children in position order; these replace the
+-- single-column foreign key indexes from V2.
+CREATE INDEX IF NOT EXISTS idx_topics_course_position ON topics (course_id, position);
+CREATE INDEX IF NOT EXISTS idx_subtopics_topic_position ON subtopics (topic_id, position);
+DROP INDEX IF EXISTS idx_topics_course_id;
+DROP INDEX IF EXISTS idx_subtopics_topic_id;
@@ -0,0 +1,40 @@
+-- Subtopic bodies move into a content-addressed side table keyed by the SHA-256 (hex) of
+-- their UTF-8 bytes, so identical bodies are stored once and a subtopic row carries only
+-- the reference and the body's length in bytes. A missing body is stored as ''.
+
+CREATE TABLE IF NOT EXISTS subtopic_content (
+    hash        VARCHAR(64) NOT NULL PRIMARY KEY,
+    length      INTEGER     NOT NULL,
+    body        TEXT        NOT NULL
+);
+
+-- Bodies are compressed by TOAST; use lz4 where the server supports it (PostgreSQL 14+
+-- built with lz4), otherwise keep the default pglz.
+DO $$
+BEGIN
+    ALTER TABLE subtopic_content ALTER COLUMN body SET COMPRESSION lz4;
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'lz4 compression unavailable, keeping the default';
+END
+$$;
+
+ALTER TABLE subtopics ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64) REFERENCES subtopic_content (hash);
+ALTER TABLE subtopics ADD COLUMN IF NOT EXISTS content_length INTEGER NOT NULL DEFAULT 0;
+
+INSERT INTO subtopic_content (hash, length, body)
+SELECT DISTINCT encode(sha256(convert_to(COALESCE(content, ''), 'UTF8')), 'hex'),
+       octet_length(COALESCE(content, '')), COALESCE(content, '')
+FROM subtopics
+ON CONFLICT (hash) DO NOTHING;
+
+UPDATE subtopics
+SET content_hash = encode(sha256(convert_to(COALESCE(content, ''), 'UTF8')), 'hex'),
+    content_length = octet_length(COALESCE(content, ''));
+
+ALTER TABLE subtopics ALTER COLUMN content_hash SET NOT NULL;
+
+-- subtopics by body (search, orphaned-body cleanup after a seed)
+CREATE INDEX IF NOT EXISTS idx_subtopics_content_hash ON subtopics (content_hash);
+
+-- also drops the optional idx_subtopics_content_trgm index
+ALTER TABLE subtopics DROP COLUMN content;
@@ -0,0 +1,46 @@
+-- Every insert or update of an enrollment or a progress row takes the next value of one
+-- shared sequence, so incremental exports can resume from a single watermark. The
+-- columns are maintained by the trigger only and are not mapped by the entities.
+
+CREATE SEQUENCE IF NOT EXISTS progress_change_seq;
+
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS changed_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE subtopic_progress ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+ALTER TABLE subtopic_progress ADD COLUMN IF NOT EXISTS changed_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- existing rows are numbered in the order they happened
+UPDATE enrollments e SET change_seq = numbered.seq, changed_at = now()
+FROM (SELECT id, nextval('progress_change_seq') AS seq
+      FROM (SELECT id FROM enrollments ORDER BY enrolled_at, id) ordered) numbered
+WHERE e.id = numbered.id;
+
+UPDATE subtopic_progress p SET change_seq = numbered.seq, changed_at = now()
+FROM (SELECT id, nextval('progress_change_seq') AS seq
+      FROM (SELECT id FROM subtopic_progress ORDER BY completed_at NULLS FIRST, id) ordered) numbered
+WHERE p.id = numbered.id;
+
+ALTER TABLE enrollments ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE enrollments ALTER COLUMN changed_at SET NOT NULL;
+ALTER TABLE subtopic_progress ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE subtopic_progress ALTER COLUMN changed_at SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION stamp_progress_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('progress_change_seq');
+    NEW.changed_at := clock_timestamp();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS enrollments_change ON enrollments;
+CREATE TRIGGER enrollments_change BEFORE INSERT OR UPDATE ON enrollments
+    FOR EACH ROW EXECUTE FUNCTION stamp_progress_change();
+
+DROP TRIGGER IF EXISTS subtopic_progress_change ON subtopic_progress;
+CREATE TRIGGER subtopic_progress_change BEFORE INSERT OR UPDATE ON subtopic_progress
+    FOR EACH ROW EXECUTE FUNCTION stamp_progress_change();
+
+-- exports walk both tables in change_seq order
+CREATE UNIQUE INDEX IF NOT EXISTS idx_enrollments_change_seq ON enrollments (change_seq);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_subtopic_progress_change_seq ON subtopic_progress (change_seq);
@@ -0,0 +1,114 @@
+-- Catalog rows carry the catalog version that last wrote them, and deleted rows leave a
+-- tombstone, so clients holding a copy of the catalog can fetch only what changed since
+-- the version they hold. Both are maintained by triggers; the entities do not map them.
+--
+-- A transaction bumps catalog_version at most once (next_catalog_version), at its first
+-- catalog write, and holds the row lock until it commits. Versions therefore commit in
+-- order, and a snapshot that sees version V sees every row stamped with V or less.
+
+CREATE OR REPLACE FUNCTION next_catalog_version() RETURNS BIGINT AS $$
+DECLARE
+    taken TEXT := current_setting('catalog.version', true);
+    next_version BIGINT;
+BEGIN
+    IF taken IS NOT NULL AND taken <> '' THEN
+        RETURN taken::BIGINT;
+    END IF;
+    INSERT INTO catalog_version (id, version, updated_at) VALUES (1, 1, now())
+    ON CONFLICT (id) DO UPDATE SET version = catalog_version.version + 1, updated_at = now()
+    RETURNING catalog_version.version INTO next_version;
+    PERFORM set_config('catalog.version', next_version::TEXT, true);
+    RETURN next_version;
+END
+$$ LANGUAGE plpgsql;
+
+-- highest tombstone revision removed by retention; clients behind it must resync
+ALTER TABLE catalog_version ADD COLUMN IF NOT EXISTS tombstones_pruned_through BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS catalog_tombstones (
+    kind        VARCHAR(16)  NOT NULL,
+    id          VARCHAR(255) NOT NULL,
+    revision    BIGINT       NOT NULL,
+    deleted_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (kind, id)
+);
+
+-- existing rows belong to the current version (version 1 if the catalog predates it)
+INSERT INTO catalog_version (id, version, updated_at)
+SELECT 1, 1, now() WHERE EXISTS (SELECT 1 FROM courses)
+ON CONFLICT (id) DO NOTHING;
+
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS revision BIGINT;
+ALTER TABLE topics ADD COLUMN IF NOT EXISTS revision BIGINT;
+ALTER TABLE subtopics ADD COLUMN IF NOT EXISTS revision BIGINT;
+
+UPDATE courses SET revision = COALESCE((SELECT version FROM catalog_version WHERE id = 1), 0);
+UPDATE topics SET revision = COALESCE((SELECT version FROM catalog_version WHERE id = 1), 0);
+UPDATE subtopics SET revision = COALESCE((SELECT version FROM catalog_version WHERE id = 1), 0);
+
+ALTER TABLE courses ALTER COLUMN revision SET NOT NULL;
+ALTER TABLE topics ALTER COLUMN revision SET NOT NULL;
+ALTER TABLE subtopics ALTER COLUMN revision SET NOT NULL;
+
+-- TG_ARGV[0] is the entity kind used in tombstones.
+--
+-- BEFORE INSERT triggers also fire for rows that INSERT ... ON CONFLICT turns into an
+-- update, as the seeder's upserts of unchanged rows do on every start. Those rows must
+-- not bump the version: an existing id gets a placeholder revision for the tuple that
+-- the conflict discards, and the update, if any, is stamped by the UPDATE trigger.
+CREATE OR REPLACE FUNCTION stamp_catalog_revision() RETURNS trigger AS $$
+DECLARE
+    present BOOLEAN;
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        IF NEW IS DISTINCT FROM OLD THEN
+            NEW.revision := next_catalog_version();
+        END IF;
+        RETURN NEW;
+    END IF;
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I.%I WHERE id = $1)', TG_TABLE_SCHEMA, TG_TABLE_NAME) INTO present USING NEW.id;
+    IF present THEN
+        NEW.revision := 0;
+    ELSE
+        NEW.revision := next_catalog_version();
+        DELETE FROM catalog_tombstones WHERE kind = TG_ARGV[0] AND id = NEW.id;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_catalog_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO catalog_tombstones (kind, id, revision, deleted_at)
+    VALUES (TG_ARGV[0], OLD.id, next_catalog_version(), now())
+    ON CONFLICT (kind, id) DO UPDATE SET revision = EXCLUDED.revision, deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS courses_revision ON courses;
+CREATE TRIGGER courses_revision BEFORE INSERT OR UPDATE ON courses
+    FOR EACH ROW EXECUTE FUNCTION stamp_catalog_revision('course');
+DROP TRIGGER IF EXISTS topics_revision ON topics;
+CREATE TRIGGER topics_revision BEFORE INSERT OR UPDATE ON topics
+    FOR EACH ROW EXECUTE FUNCTION stamp_catalog_revision('topic');
+DROP TRIGGER IF EXISTS subtopics_revision ON subtopics;
+CREATE TRIGGER subtopics_revision BEFORE INSERT OR UPDATE ON subtopics
+    FOR EACH ROW EXECUTE FUNCTION stamp_catalog_revision('subtopic');
+
+DROP TRIGGER IF EXISTS courses_tombstone ON courses;
+CREATE TRIGGER courses_tombstone AFTER DELETE ON courses
+    FOR EACH ROW EXECUTE FUNCTION record_catalog_tombstone('course');
+DROP TRIGGER IF EXISTS topics_tombstone ON topics;
+CREATE TRIGGER topics_tombstone AFTER DELETE ON topics
+    FOR EACH ROW EXECUTE FUNCTION record_catalog_tombstone('topic');
+DROP TRIGGER IF EXISTS subtopics_tombstone ON subtopics;
+CREATE TRIGGER subtopics_tombstone AFTER DELETE ON subtopics
+    FOR EACH ROW EXECUTE FUNCTION record_catalog_tombstone('subtopic');
+
+-- change feeds read rows newer than a client's revision
+CREATE INDEX IF NOT EXISTS idx_courses_revision ON courses (revision);
+CREATE INDEX IF NOT EXISTS idx_topics_revision ON topics (revision);
+CREATE INDEX IF NOT EXISTS idx_subtopics_revision ON subtopics (revision);
+CREATE INDEX IF NOT EXISTS idx_catalog_tombstones_revision ON catalog_tombstones (revision);
+CREATE INDEX IF NOT EXISTS idx_catalog_tombstones_deleted_at ON catalog_tombstones (deleted_at);
@@ -0,0 +1,23 @@
+-- Progress changes also record the transaction that made them, so an export can bound
+-- itself by the oldest transaction still running in its snapshot (pg_snapshot_xmin):
+-- every transaction below it has finished, so no row below it can still appear, however
+-- long the transaction that wrote it ran. Rows written before this migration share the
+-- lowest normal transaction id and are exported by a watermark of 0.
+
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT '3';
+ALTER TABLE subtopic_progress ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT '3';
+ALTER TABLE enrollments ALTER COLUMN change_xid DROP DEFAULT;
+ALTER TABLE subtopic_progress ALTER COLUMN change_xid DROP DEFAULT;
+
+CREATE OR REPLACE FUNCTION stamp_progress_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('progress_change_seq');
+    NEW.changed_at := clock_timestamp();
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- exports select a range of transactions from both tables
+CREATE INDEX IF NOT EXISTS idx_enrollments_change_xid ON enrollments (change_xid);
+CREATE INDEX IF NOT EXISTS idx_subtopic_progress_change_xid ON subtopic_progress (change_xid);
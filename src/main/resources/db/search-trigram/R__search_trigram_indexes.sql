@@ -0,0 +1,14 @@
+-- Optional: trigram indexes serving CourseRepository.searchCourses, whose
+-- LOWER(column) LIKE '%query%' predicates otherwise scan every row. Enabled by adding
+-- classpath:db/search-trigram to spring.flyway.locations (SEARCH_TRIGRAM_INDEXES=true).
+-- Requires the pg_trgm extension, i.e. a role allowed to create it. Repeatable, so it
+-- can be switched on for a database at any point without renumbering migrations.
+-- The expressions must match the generated SQL exactly (lower(column)) to be used.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_description_trgm ON courses USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_topics_title_trgm ON topics USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_subtopics_title_trgm ON subtopics USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_subtopic_content_body_trgm ON subtopic_content USING gin (lower(body) gin_trgm_ops);
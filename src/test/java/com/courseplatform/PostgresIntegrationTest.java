@@ -0,0 +1,86 @@
+package com.courseplatform;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Base for tests against PostgreSQL: the whole application on a database that Flyway
+ * migrates and the seeder fills from seed-data.json, as in production. All subclasses
+ * share one context and one database, so each test writes rows under ids of its own and
+ * removes them again, leaving the seeded catalog as it found it.
+ *
+ * <p>The database is a Testcontainers PostgreSQL, or the one at {@code TEST_DATABASE_URL}
+ * ({@code TEST_DATABASE_USERNAME}, {@code TEST_DATABASE_PASSWORD}) when that is set, for
+ * machines without Docker. With neither, the tests are skipped.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class PostgresIntegrationTest {
+
+    private static final String EXTERNAL_URL = System.getenv("TEST_DATABASE_URL");
+
+    private static PostgreSQLContainer<?> container;
+    private static Path data;
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable(),
+                "needs Docker or TEST_DATABASE_URL");
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> env("TEST_DATABASE_USERNAME", "postgres"));
+            registry.add("spring.datasource.password", () -> env("TEST_DATABASE_PASSWORD", ""));
+        } else {
+            registry.add("spring.datasource.url", () -> container().getJdbcUrl());
+            registry.add("spring.datasource.username", () -> container().getUsername());
+            registry.add("spring.datasource.password", () -> container().getPassword());
+        }
+        registry.add("jwt.secret", () -> "integration-test-secret-0123456789abcdef0123456789abcdef");
+        registry.add("catalog.reactive.enabled", () -> "true");
+        registry.add("catalog.snapshot.path", () -> data().resolve("catalog.snapshot").toString());
+        registry.add("content.store.path", () -> data().resolve("content").toString());
+        registry.add("bundle.path", () -> data().resolve("bundles").toString());
+        registry.add("recorder.path", () -> data().resolve("capture").toString());
+    }
+
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            // stopped by Testcontainers when the JVM exits
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        return container;
+    }
+
+    private static synchronized Path data() {
+        if (data == null) {
+            try {
+                data = Files.createTempDirectory("course-platform-it");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return data;
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
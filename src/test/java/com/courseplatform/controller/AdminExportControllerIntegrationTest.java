@@ -0,0 +1,171 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.service.ProgressExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminExportControllerIntegrationTest extends PostgresIntegrationTest {
+
+    private static final RequestPostProcessor ADMIN = user("it-admin@example.com").roles("USER", "ADMIN");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProgressExportService progressExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long userId;
+    private long watermark;
+
+    @BeforeEach
+    void createUser() {
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (id, email, password, created_at) " +
+                "VALUES (nextval('users_seq'), 'it-export@example.com', 'unused', now()) RETURNING id", Long.class);
+        watermark = export(0, ProgressExportService.Format.NDJSON, new ByteArrayOutputStream());
+    }
+
+    @AfterEach
+    void removeUser() {
+        jdbcTemplate.update("DELETE FROM subtopic_progress WHERE enrollment_id IN " +
+                "(SELECT id FROM enrollments WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM enrollments WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void exportsTheChangesAfterTheWatermarkInChangeOrder() throws Exception {
+        long enrollmentId = enroll();
+        jdbcTemplate.update("INSERT INTO subtopic_progress (enrollment_id, subtopic_id, completed, completed_at) " +
+                "VALUES (?, 'speed', true, '2026-01-02 03:04:05')", enrollmentId);
+
+        MvcResult result = mockMvc.perform(get("/api/admin/export/progress").param("since", Long.toString(watermark))
+                        .with(ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+
+        List<JsonNode> changes = ndjson(result.getResponse().getContentAsString());
+        assertThat(changes).extracting(change -> change.get("type").asText()).containsExactly("enrollment", "progress");
+        assertThat(changes.get(0).get("id").asLong()).isEqualTo(enrollmentId);
+        assertThat(changes.get(0).get("userId").asLong()).isEqualTo(userId);
+        assertThat(changes.get(1).get("subtopicId").asText()).isEqualTo("speed");
+        assertThat(changes.get(1).get("completed").asBoolean()).isTrue();
+        assertThat(changes.get(1).get("completedAt").asText()).isEqualTo("2026-01-02T03:04:05");
+        assertThat(changes.get(0).get("changeSeq").asLong()).isLessThan(changes.get(1).get("changeSeq").asLong());
+
+        long next = Long.parseLong(result.getResponse().getHeader(AdminExportController.NEXT_WATERMARK));
+        assertThat(next).isGreaterThan(watermark);
+        mockMvc.perform(get("/api/admin/export/progress").param("since", Long.toString(next)).with(ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void exportsAsCsv() throws Exception {
+        long enrollmentId = enroll();
+
+        mockMvc.perform(get("/api/admin/export/progress").param("since", Long.toString(watermark))
+                        .param("format", "CSV").with(ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string(matchesPattern(
+                        "type,changeSeq,id,enrollmentId,userId,courseId,subtopicId,completed,at\n" +
+                        "enrollment,\\d+," + enrollmentId + "," + enrollmentId + "," + userId +
+                        ",physics-101,,,\\d{4}-.+\n")));
+    }
+
+    @Test
+    void exportsATransactionStillRunningOnceItHasCommitted() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO enrollments (user_id, course_id, enrolled_at) " +
+                        "VALUES (" + userId + ", 'physics-101', now())");
+            }
+            // a transaction started after this one commits first
+            enroll("math-101");
+
+            ByteArrayOutputStream first = new ByteArrayOutputStream();
+            long next = export(watermark, ProgressExportService.Format.NDJSON, first);
+            assertThat(first.size()).isZero();
+
+            connection.commit();
+
+            ByteArrayOutputStream second = new ByteArrayOutputStream();
+            export(next, ProgressExportService.Format.NDJSON, second);
+            assertThat(ndjson(second.toString(StandardCharsets.UTF_8)))
+                    .extracting(change -> change.get("courseId").asText())
+                    .containsExactlyInAnyOrder("physics-101", "math-101");
+        }
+    }
+
+    @Test
+    void rejectsAnUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/admin/export/progress").param("format", "json").with(ADMIN))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void requiresTheAdminRole() throws Exception {
+        mockMvc.perform(get("/api/admin/export/progress").with(user("it-user@example.com").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    private long enroll() {
+        return enroll("physics-101");
+    }
+
+    private long enroll(String courseId) {
+        return jdbcTemplate.queryForObject("INSERT INTO enrollments (user_id, course_id, enrolled_at) " +
+                "VALUES (?, ?, now()) RETURNING id", Long.class, userId, courseId);
+    }
+
+    private long export(long since, ProgressExportService.Format format, ByteArrayOutputStream out) {
+        long[] next = {-1};
+        progressExportService.export(since, format, value -> next[0] = value, out);
+        return next[0];
+    }
+
+    private List<JsonNode> ndjson(String body) throws Exception {
+        List<JsonNode> changes = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                changes.add(objectMapper.readTree(line));
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,63 @@
+package com.courseplatform.metrics;
+
+import com.courseplatform.PostgresIntegrationTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryPlanCheckIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private QueryPlanCheck queryPlanCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void appliesEveryMigration() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL " +
+                        "ORDER BY installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7");
+    }
+
+    // The tables are too small for the planner to prefer an index on its own, so sequential
+    // scans are priced out and every table, whatever its size, is reported: a core query
+    // still planned as a Seq Scan has no index it can use.
+    @Test
+    void servesEveryCoreQueryFromAnIndex() {
+        double before = seqScans();
+        long minRows = (long) ReflectionTestUtils.getField(queryPlanCheck, "minRows");
+        ReflectionTestUtils.setField(queryPlanCheck, "minRows", 0L);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+                queryPlanCheck.check();
+            });
+        } finally {
+            ReflectionTestUtils.setField(queryPlanCheck, "minRows", minRows);
+        }
+
+        assertThat(seqScans()).isEqualTo(before);
+    }
+
+    private double seqScans() {
+        List<Counter> counters = List.copyOf(meterRegistry.find("schema.plan-check.seq-scans").counters());
+        return counters.stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,58 @@
+package com.courseplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverRejectsAKeyItWasGiven() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("course-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("course-" + i)).as("course-" + i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheSizedRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterRejectsEverything() {
+        BloomFilter filter = BloomFilter.create(0, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("course-1")).isFalse();
+        assertThat(filter.bitCount()).isEqualTo(64);
+    }
+
+    @Test
+    void saturatesOnceOverCapacity() {
+        BloomFilter filter = BloomFilter.create(3, 0.01);
+        filter.put("a");
+        filter.put("b");
+        filter.put("c");
+        assertThat(filter.saturated()).isFalse();
+
+        filter.put("d");
+        assertThat(filter.saturated()).isTrue();
+        assertThat(filter.mightContain("d")).isTrue();
+    }
+}
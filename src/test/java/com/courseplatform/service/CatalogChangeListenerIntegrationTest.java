@@ -0,0 +1,119 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.catalog.CatalogSnapshot;
+import com.courseplatform.repository.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogChangeListenerIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String OTHER_INSTANCE = "it-other-instance";
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private DataSeederService dataSeederService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void restoreCatalog() throws Exception {
+        dataSeederService.run();
+        catalogSnapshotService.rebuild();
+    }
+
+    @Test
+    void reseedingAChangedCatalogRebuildsTheSnapshot() throws Exception {
+        inTransaction("UPDATE courses SET title = 'Edited' WHERE id = 'physics-101'", null);
+        long edited = catalogVersionService.current();
+
+        dataSeederService.run();
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        assertThat(snapshot.getCatalogVersion()).isEqualTo(edited + 1);
+        assertThat(snapshot.course("physics-101").orElseThrow().getTitle()).isNotEqualTo("Edited");
+    }
+
+    @Test
+    void appliesAChangeAnnouncedByAnotherInstance() {
+        // cached before the change, as the other instance's write never passes through here
+        assertThat(courseRepository.findById("physics-101").orElseThrow().getTitle()).isNotEqualTo("Elsewhere");
+        double applied = notifications("applied");
+
+        long version = inTransaction("UPDATE courses SET title = 'Elsewhere' WHERE id = 'physics-101'",
+                OTHER_INSTANCE);
+
+        awaitUntil(() -> catalogSnapshotService.current().getCatalogVersion() == version);
+        assertThat(notifications("applied")).isGreaterThan(applied);
+        assertThat(catalogSnapshotService.current().course("physics-101").orElseThrow().getTitle())
+                .isEqualTo("Elsewhere");
+        assertThat(courseRepository.findById("physics-101").orElseThrow().getTitle()).isEqualTo("Elsewhere");
+    }
+
+    @Test
+    void ignoresItsOwnNotifications() {
+        double own = notifications("own");
+        double applied = notifications("applied");
+
+        inTransaction("UPDATE courses SET title = 'Here' WHERE id = 'physics-101'",
+                catalogVersionService.getInstanceId());
+
+        awaitUntil(() -> notifications("own") > own);
+        assertThat(notifications("applied")).isEqualTo(applied);
+    }
+
+    // Commits a catalog write the way a writer on some instance does, announcing it as
+    // that instance unless instanceId is null.
+    private long inTransaction(String statement, String instanceId) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update(statement);
+            long version = jdbcTemplate.queryForObject("SELECT next_catalog_version()", Long.class);
+            if (instanceId != null) {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CatalogVersionService.CHANNEL,
+                        version + " " + instanceId + " test");
+            }
+            return version;
+        });
+    }
+
+    private double notifications(String outcome) {
+        return meterRegistry.counter("catalog.change-notifications", "outcome", outcome).count();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5 s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
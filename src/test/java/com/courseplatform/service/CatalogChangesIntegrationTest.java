@@ -0,0 +1,228 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogChangesIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @Autowired
+    private CatalogChangesService catalogChangesService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private DataSeederService dataSeederService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void removeRows() {
+        inTransaction(
+                "DELETE FROM subtopics WHERE id LIKE 'it-changes-%'",
+                "DELETE FROM topics WHERE id LIKE 'it-changes-%'",
+                "DELETE FROM courses WHERE id LIKE 'it-changes-%'",
+                "DELETE FROM subtopic_content WHERE hash = '" + HASH + "'");
+    }
+
+    @Test
+    void reseedingAnUnchangedCatalogKeepsTheVersion() throws Exception {
+        long version = catalogVersionService.current();
+        List<Long> revisions = revisions();
+
+        dataSeederService.run();
+
+        assertThat(catalogVersionService.current()).isEqualTo(version);
+        assertThat(revisions()).isEqualTo(revisions);
+    }
+
+    @Test
+    void reseedingStampsOnlyTheRowsItRestores() throws Exception {
+        inTransaction("UPDATE courses SET title = 'Edited' WHERE id = 'physics-101'");
+        long edited = catalogVersionService.current();
+
+        dataSeederService.run();
+
+        long restored = catalogVersionService.current();
+        assertThat(restored).isEqualTo(edited + 1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM courses WHERE revision = ?", String.class, restored))
+                .containsExactly("physics-101");
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM courses WHERE id = 'physics-101'", String.class))
+                .isNotEqualTo("Edited");
+    }
+
+    @Test
+    void stampsEveryRowOfATransactionWithOneVersion() {
+        long before = catalogVersionService.current();
+
+        insertCourse("it-changes-course");
+
+        long version = catalogVersionService.current();
+        assertThat(version).isEqualTo(before + 1);
+        assertThat(revision("courses", "it-changes-course")).isEqualTo(version);
+        assertThat(revision("topics", "it-changes-topic")).isEqualTo(version);
+        assertThat(revision("subtopics", "it-changes-subtopic")).isEqualTo(version);
+    }
+
+    @Test
+    void updatesThatChangeNothingKeepTheirRevision() {
+        insertCourse("it-changes-course");
+        long inserted = catalogVersionService.current();
+
+        inTransaction("UPDATE courses SET title = title WHERE id = 'it-changes-course'");
+        assertThat(catalogVersionService.current()).isEqualTo(inserted);
+
+        inTransaction("UPDATE courses SET title = 'Renamed' WHERE id = 'it-changes-course'");
+        assertThat(catalogVersionService.current()).isEqualTo(inserted + 1);
+        assertThat(revision("courses", "it-changes-course")).isEqualTo(inserted + 1);
+        assertThat(revision("topics", "it-changes-topic")).isEqualTo(inserted);
+    }
+
+    @Test
+    void deletesLeaveTombstonesThatAReinsertRemoves() {
+        insertCourse("it-changes-course");
+
+        inTransaction("DELETE FROM subtopics WHERE id = 'it-changes-subtopic'");
+        long deleted = catalogVersionService.current();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT revision FROM catalog_tombstones WHERE kind = 'subtopic' AND id = 'it-changes-subtopic'",
+                Long.class)).isEqualTo(deleted);
+
+        inTransaction("INSERT INTO subtopics (id, title, content_hash, content_length, topic_id, position) " +
+                "VALUES ('it-changes-subtopic', 'Back', '" + HASH + "', 0, 'it-changes-topic', 0)");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM catalog_tombstones WHERE kind = 'subtopic' AND id = 'it-changes-subtopic'",
+                Long.class)).isZero();
+    }
+
+    @Test
+    void returnsTheRowsWrittenAndRemovedSinceARevision() throws IOException {
+        insertCourse("it-changes-course");
+        long since = catalogVersionService.current();
+        inTransaction(
+                "UPDATE topics SET title = 'Renamed' WHERE id = 'it-changes-topic'",
+                "DELETE FROM subtopics WHERE id = 'it-changes-subtopic'");
+
+        long[] revision = {-1};
+        JsonNode changes = changes(since, revision);
+
+        assertThat(revision[0]).isEqualTo(since + 1);
+        assertThat(changes.get("revision").asLong()).isEqualTo(since + 1);
+        assertThat(changes.get("reset").asBoolean()).isFalse();
+        assertThat(ids(changes.get("courses"))).isEmpty();
+        assertThat(ids(changes.get("topics"))).containsExactly("it-changes-topic");
+        assertThat(changes.get("topics").get(0).get("title").asText()).isEqualTo("Renamed");
+        assertThat(ids(changes.get("subtopics"))).isEmpty();
+        assertThat(changes.get("removed").get("subtopics")).hasSize(1);
+        assertThat(changes.get("removed").get("subtopics").get(0).asText()).isEqualTo("it-changes-subtopic");
+    }
+
+    @Test
+    void answersACurrentClientWithTheRevisionAlone() throws IOException {
+        long current = catalogVersionService.current();
+
+        JsonNode changes = changes(current, new long[1]);
+
+        assertThat(changes.get("revision").asLong()).isEqualTo(current);
+        assertThat(changes.get("reset").asBoolean()).isFalse();
+        assertThat(changes.has("courses")).isFalse();
+        assertThat(changes.has("removed")).isFalse();
+    }
+
+    @Test
+    void resetsAClientAheadOfTheCatalog() throws IOException {
+        long current = catalogVersionService.current();
+
+        JsonNode changes = changes(current + 10, new long[1]);
+
+        assertThat(changes.get("revision").asLong()).isEqualTo(current);
+        assertThat(changes.get("reset").asBoolean()).isTrue();
+        assertThat(ids(changes.get("courses"))).contains("physics-101");
+        assertThat(changes.has("removed")).isFalse();
+    }
+
+    @Test
+    void resetsAClientBehindAPrunedTombstone() throws IOException {
+        insertCourse("it-changes-course");
+        long since = catalogVersionService.current();
+        inTransaction("DELETE FROM subtopics WHERE id = 'it-changes-subtopic'");
+        long deleted = catalogVersionService.current();
+        inTransaction("UPDATE catalog_tombstones SET deleted_at = now() - interval '365 days' " +
+                "WHERE kind = 'subtopic' AND id = 'it-changes-subtopic'");
+
+        catalogChangesService.pruneTombstones();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM catalog_tombstones WHERE kind = 'subtopic' AND id = 'it-changes-subtopic'",
+                Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT tombstones_pruned_through FROM catalog_version WHERE id = 1", Long.class))
+                .isEqualTo(deleted);
+        assertThat(changes(since, new long[1]).get("reset").asBoolean()).isTrue();
+        assertThat(changes(deleted, new long[1]).get("reset").asBoolean()).isFalse();
+    }
+
+    private void insertCourse(String courseId) {
+        inTransaction(
+                "INSERT INTO subtopic_content (hash, length, body) VALUES ('" + HASH + "', 0, '') " +
+                        "ON CONFLICT (hash) DO NOTHING",
+                "INSERT INTO courses (id, title, description) VALUES ('" + courseId + "', 'Course', 'About')",
+                "INSERT INTO topics (id, title, course_id, position) " +
+                        "VALUES ('it-changes-topic', 'Topic', '" + courseId + "', 0)",
+                "INSERT INTO subtopics (id, title, content_hash, content_length, topic_id, position) " +
+                        "VALUES ('it-changes-subtopic', 'Subtopic', '" + HASH + "', 0, 'it-changes-topic', 0)");
+    }
+
+    private void inTransaction(String... statements) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String statement : statements) {
+                jdbcTemplate.update(statement);
+            }
+        });
+    }
+
+    private long revision(String table, String id) {
+        return jdbcTemplate.queryForObject("SELECT revision FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    private List<Long> revisions() {
+        return jdbcTemplate.queryForList(
+                "SELECT revision FROM courses UNION ALL SELECT revision FROM topics " +
+                        "UNION ALL SELECT revision FROM subtopics ORDER BY 1", Long.class);
+    }
+
+    private JsonNode changes(long since, long[] revision) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogChangesService.writeChanges(since, next -> revision[0] = next, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private static List<String> ids(JsonNode rows) {
+        List<String> ids = new ArrayList<>();
+        rows.forEach(row -> ids.add(row.get("id").asText()));
+        return ids;
+    }
+}
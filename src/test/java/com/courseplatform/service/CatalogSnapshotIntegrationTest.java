@@ -0,0 +1,118 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.catalog.CatalogSnapshot;
+import com.courseplatform.dto.CourseSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeRows() {
+        inTransaction("DELETE FROM courses WHERE id LIKE 'it-snapshot-%'");
+        // leave the snapshot matching the database for the other tests
+        catalogSnapshotService.rebuild();
+    }
+
+    @Test
+    void rebuildsAtTheCommittedVersion() {
+        catalogSnapshotService.rebuild();
+        inTransaction("INSERT INTO courses (id, title, description) VALUES ('it-snapshot-course', 'Added', '')");
+
+        catalogSnapshotService.rebuild();
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        assertThat(snapshot.getCatalogVersion()).isEqualTo(catalogVersionService.current());
+        assertThat(snapshot.course("it-snapshot-course")).isPresent();
+        assertThat(snapshot.courseSummaries()).extracting(CourseSummary::getId).contains("it-snapshot-course");
+    }
+
+    @Test
+    void keepsASnapshotThatIsAlreadyCurrent() {
+        catalogSnapshotService.rebuild();
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+
+        catalogSnapshotService.rebuild();
+        catalogSnapshotService.onCatalogChanged(new CatalogChangedEvent("test", snapshot.getCatalogVersion()));
+
+        assertThat(catalogSnapshotService.current()).isSameAs(snapshot);
+    }
+
+    @Test
+    void concurrentRebuildsInstallTheLatestCatalogOnce() throws Exception {
+        catalogSnapshotService.rebuild();
+        CatalogSnapshot before = catalogSnapshotService.current();
+        inTransaction("INSERT INTO courses (id, title, description) VALUES ('it-snapshot-course', 'Added', '')");
+        long version = catalogVersionService.current();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CatalogSnapshot>> rebuilt = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                rebuilt.add(executor.submit(() -> {
+                    start.await();
+                    catalogSnapshotService.onCatalogChanged(new CatalogChangedEvent("test", version));
+                    return catalogSnapshotService.current();
+                }));
+            }
+            start.countDown();
+
+            List<CatalogSnapshot> seen = new ArrayList<>();
+            for (Future<CatalogSnapshot> snapshot : rebuilt) {
+                seen.add(snapshot.get());
+            }
+
+            // the first rebuild installs the new catalog; the others find it current and keep it
+            CatalogSnapshot after = catalogSnapshotService.current();
+            assertThat(after).isNotSameAs(before);
+            assertThat(seen).allSatisfy(snapshot -> assertThat(snapshot).isSameAs(after));
+            assertThat(after.getCatalogVersion()).isEqualTo(version);
+            assertThat(after.course("it-snapshot-course")).isPresent();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rebuildsADiscardedSnapshot() {
+        catalogSnapshotService.rebuild();
+
+        catalogSnapshotService.discard();
+        assertThat(catalogSnapshotService.current()).isNull();
+
+        catalogSnapshotService.rebuild();
+        assertThat(catalogSnapshotService.current().getCatalogVersion()).isEqualTo(catalogVersionService.current());
+    }
+
+    private void inTransaction(String statement) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update(statement));
+    }
+}
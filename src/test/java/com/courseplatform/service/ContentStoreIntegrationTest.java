@@ -0,0 +1,118 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.exception.NotFoundException;
+import com.courseplatform.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ContentStoreIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<String> inserted = new ArrayList<>();
+
+    @AfterEach
+    void removeBodies() {
+        for (String hash : inserted) {
+            jdbcTemplate.update("DELETE FROM subtopic_content WHERE hash = ?", hash);
+        }
+    }
+
+    @Test
+    void fetchesABodyOnceAndServesItFromItsSegment() throws IOException {
+        String body = "Grüße ✓ " + UUID.randomUUID();
+        String hash = insert(body);
+
+        sqlStatementCounter.start();
+        assertThat(contentStore.read(hash)).isEqualTo(body);
+        assertThat(contentStore.read(hash)).isEqualTo(body);
+        assertThat(sqlStatementCounter.stop()).isEqualTo(1);
+
+        ContentStore.Region region = contentStore.region(hash);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        assertThat(region.length()).isEqualTo(bytes.length);
+        try (FileChannel file = FileChannel.open(region.file())) {
+            ByteBuffer stored = ByteBuffer.allocate(bytes.length);
+            file.read(stored, region.offset());
+            assertThat(stored.array()).isEqualTo(bytes);
+        }
+    }
+
+    @Test
+    void prefetchesMissingBodiesWithOneStatement() {
+        List<String> bodies = List.of("one " + UUID.randomUUID(), "two " + UUID.randomUUID(),
+                "three " + UUID.randomUUID());
+        List<String> hashes = bodies.stream().map(this::insert).toList();
+
+        sqlStatementCounter.start();
+        contentStore.prefetch(hashes);
+        for (int i = 0; i < bodies.size(); i++) {
+            assertThat(contentStore.read(hashes.get(i))).isEqualTo(bodies.get(i));
+        }
+        assertThat(sqlStatementCounter.stop()).isEqualTo(1);
+    }
+
+    @Test
+    void failsForABodyTheDatabaseNoLongerHolds() {
+        String hash = ContentStore.hash("never stored " + UUID.randomUUID());
+
+        assertThatThrownBy(() -> contentStore.read(hash)).isInstanceOf(NotFoundException.class);
+    }
+
+    // The migration hashed the seeded bodies in SQL; the store must agree with it.
+    @Test
+    void storesSeededBodiesUnderTheirSha256() {
+        String hash = jdbcTemplate.queryForObject("SELECT content_hash FROM subtopics WHERE id = 'speed'", String.class);
+
+        assertThat(ContentStore.hash(contentStore.read(hash))).isEqualTo(hash);
+    }
+
+    @Test
+    void servesTheBodyOfASubtopicWithItsHashAsETag() throws Exception {
+        String hash = jdbcTemplate.queryForObject("SELECT content_hash FROM subtopics WHERE id = 'speed'", String.class);
+
+        mockMvc.perform(get("/api/subtopics/speed/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + hash + "\""))
+                .andExpect(content().string(contentStore.read(hash)));
+        mockMvc.perform(get("/api/subtopics/speed/content").header("If-None-Match", "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    private String insert(String body) {
+        String hash = ContentStore.hash(body);
+        jdbcTemplate.update("INSERT INTO subtopic_content (hash, length, body) VALUES (?, ?, ?)",
+                hash, body.getBytes(StandardCharsets.UTF_8).length, body);
+        inserted.add(hash);
+        return hash;
+    }
+}
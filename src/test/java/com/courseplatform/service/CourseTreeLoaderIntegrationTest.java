@@ -0,0 +1,135 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseSummary;
+import com.courseplatform.dto.SubtopicDetail;
+import com.courseplatform.dto.TopicDetail;
+import com.courseplatform.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseTreeLoaderIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String HASH = "encode(sha256(convert_to('Body', 'UTF8')), 'hex')";
+
+    @Autowired
+    private CourseTreeLoader courseTreeLoader;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Positions run against id order, so only the position ordering passes.
+    @BeforeEach
+    void insertCourses() {
+        inTransaction(
+                "INSERT INTO subtopic_content (hash, length, body) VALUES (" + HASH + ", 4, 'Body') " +
+                        "ON CONFLICT (hash) DO NOTHING",
+                "INSERT INTO courses (id, title, description) VALUES ('it-tree-course', 'Tree', 'A course')",
+                "INSERT INTO courses (id, title, description) VALUES ('it-tree-empty', 'Empty', NULL)",
+                "INSERT INTO topics (id, title, course_id, position) VALUES " +
+                        "('it-tree-b', 'Second id', 'it-tree-course', 0), " +
+                        "('it-tree-a', 'First id', 'it-tree-course', 1), " +
+                        "('it-tree-c', 'No subtopics', 'it-tree-course', 2)",
+                "INSERT INTO subtopics (id, title, content_hash, content_length, topic_id, position) VALUES " +
+                        "('it-tree-b2', 'B two', " + HASH + ", 4, 'it-tree-b', 0), " +
+                        "('it-tree-b1', 'B one', " + HASH + ", 4, 'it-tree-b', 1), " +
+                        "('it-tree-a1', 'A one', " + HASH + ", 4, 'it-tree-a', 0)");
+    }
+
+    @AfterEach
+    void removeCourses() {
+        inTransaction(
+                "DELETE FROM subtopics WHERE id LIKE 'it-tree-%'",
+                "DELETE FROM topics WHERE id LIKE 'it-tree-%'",
+                "DELETE FROM courses WHERE id LIKE 'it-tree-%'");
+    }
+
+    @Test
+    void loadsACourseTreeInPositionOrderWithOneStatement() {
+        CourseDetailResponse course = counted(() -> courseTreeLoader.load("it-tree-course").orElseThrow());
+
+        assertThat(course.getTitle()).isEqualTo("Tree");
+        assertThat(course.getDescription()).isEqualTo("A course");
+        assertThat(course.getTopics()).extracting(TopicDetail::getId)
+                .containsExactly("it-tree-b", "it-tree-a", "it-tree-c");
+        assertThat(course.getTopics().get(0).getSubtopics()).extracting(SubtopicDetail::getId)
+                .containsExactly("it-tree-b2", "it-tree-b1");
+        assertThat(course.getTopics().get(0).getSubtopics().get(0).getContent()).isEqualTo("Body");
+        assertThat(course.getTopics().get(2).getSubtopics()).isEmpty();
+    }
+
+    @Test
+    void loadsACourseWithoutTopics() {
+        CourseDetailResponse course = courseTreeLoader.load("it-tree-empty").orElseThrow();
+
+        assertThat(course.getDescription()).isNull();
+        assertThat(course.getTopics()).isEmpty();
+        assertThat(courseTreeLoader.load("it-tree-missing")).isEmpty();
+    }
+
+    @Test
+    void loadsEveryCourseTreeWithOneStatement() {
+        List<CourseDetailResponse> courses = counted(courseTreeLoader::loadAll);
+
+        assertThat(courses).extracting(CourseDetailResponse::getId)
+                .contains("physics-101", "it-tree-course", "it-tree-empty");
+        assertThat(courses).filteredOn(course -> course.getId().equals("it-tree-course")).singleElement()
+                .isEqualTo(courseTreeLoader.load("it-tree-course").orElseThrow());
+    }
+
+    @Test
+    void countsTopicsAndSubtopicsPerCourseWithOneStatement() {
+        List<CourseSummary> summaries = counted(courseTreeLoader::loadSummaries);
+
+        assertThat(summaries).filteredOn(summary -> summary.getId().startsWith("it-tree-"))
+                .containsExactly(
+                        new CourseSummary("it-tree-course", "Tree", "A course", 3, 3),
+                        new CourseSummary("it-tree-empty", "Empty", null, 0, 0));
+        assertThat(courseTreeLoader.countSubtopics("it-tree-course")).isEqualTo(3);
+        assertThat(courseTreeLoader.countSubtopics("it-tree-empty")).isZero();
+    }
+
+    @Test
+    void loadsTheSubtopicsOfTheGivenCoursesWithOneStatement() {
+        List<CourseTreeLoader.SubtopicRow> rows = counted(
+                () -> courseTreeLoader.loadSubtopics(List.of("it-tree-empty", "it-tree-course")));
+
+        assertThat(rows).extracting(CourseTreeLoader.SubtopicRow::subtopicId)
+                .containsExactly("it-tree-b2", "it-tree-b1", "it-tree-a1");
+        assertThat(rows.get(0)).isEqualTo(new CourseTreeLoader.SubtopicRow("it-tree-course", "Second id",
+                "it-tree-b2", "B two", jdbcTemplate.queryForObject("SELECT " + HASH, String.class)));
+        assertThat(courseTreeLoader.loadSubtopics(List.of())).isEmpty();
+    }
+
+    private <T> T counted(Supplier<T> load) {
+        sqlStatementCounter.start();
+        T result = load.get();
+        assertThat(sqlStatementCounter.stop()).as("statements").isEqualTo(1);
+        return result;
+    }
+
+    private void inTransaction(String... statements) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String statement : statements) {
+                jdbcTemplate.update(statement);
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.dto.SearchResult;
+import com.courseplatform.exception.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveCatalogIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReactiveCatalogService reactiveCatalogService;
+
+    @Autowired
+    private CourseTreeLoader courseTreeLoader;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Test
+    void streamsTheSameCoursesAsTheServletReads() {
+        assertThat(reactiveCatalogService.streamCourses().collectList().block())
+                .isEqualTo(courseTreeLoader.loadSummaries());
+        assertThat(reactiveCatalogService.getCourse("physics-101").block())
+                .isEqualTo(courseTreeLoader.load("physics-101").orElseThrow());
+    }
+
+    @Test
+    void failsForAnUnknownCourse() {
+        assertThatThrownBy(() -> reactiveCatalogService.getCourse("it-reactive-missing").block())
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void findsTheSameMatchesAsTheServletSearch() {
+        List<SearchResult> results = reactiveCatalogService.streamSearch("speed").collectList().block();
+
+        assertThat(results).isNotEmpty();
+        assertThat(results).isEqualTo(courseService.searchCourses("speed").getResults());
+    }
+
+    @Test
+    void matchesAQueryWithSurroundingSpacesAsTheTrimmedQuery() {
+        List<SearchResult> padded = reactiveCatalogService.streamSearch("  Speed ").collectList().block();
+
+        assertThat(padded).isNotEmpty();
+        assertThat(padded).isEqualTo(reactiveCatalogService.streamSearch("speed").collectList().block());
+    }
+
+    @Test
+    void streamsNothingForABlankQuery() {
+        assertThat(reactiveCatalogService.streamSearch("   ").collectList().block()).isEmpty();
+    }
+}
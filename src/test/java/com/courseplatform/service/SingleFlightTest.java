@@ -0,0 +1,160 @@
+package com.courseplatform.service;
+
+import com.courseplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(singleFlight, "defaultTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(singleFlight, "timeouts", "slow=50");
+        singleFlight.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void followersShareTheLeadersResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("courses", "all", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "loaded";
+        }));
+        awaitLeader("courses");
+        Future<String> follower = executor.submit(() -> singleFlight.execute("courses", "all", () -> {
+            loads.incrementAndGet();
+            return "second load";
+        }));
+        awaitFollowers("courses", 1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("search", "java", () -> {
+            await(release);
+            throw failure;
+        }));
+        awaitLeader("search");
+        Future<String> follower = executor.submit(() -> singleFlight.execute("search", "java", () -> "unused"));
+        awaitFollowers("search", 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+
+    @Test
+    void followersGiveUpAfterTheFlightTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("slow", 1, () -> {
+            await(release);
+            return "late";
+        }));
+        awaitLeader("slow");
+
+        try {
+            assertThatThrownBy(() -> singleFlight.execute("slow", 1, () -> "unused"))
+                    .isInstanceOf(TooManyRequestsException.class);
+            assertThat(meterRegistry.counter("single-flight.timeouts", "flight", "slow").count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("late");
+    }
+
+    @Test
+    void nothingIsCachedOnceTheFlightLands() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(singleFlight.execute("course", "c1", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.execute("course", "c1", loads::incrementAndGet)).isEqualTo(2);
+        assertThatThrownBy(() -> singleFlight.execute("course", "c1", () -> {
+            throw new IllegalArgumentException("bad id");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(singleFlight.execute("course", "c1", loads::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    void differentKeysFlySeparately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> singleFlight.execute("course", "c1", () -> {
+            await(release);
+            return "c1";
+        }));
+        awaitLeader("course");
+
+        try {
+            assertThat(singleFlight.execute("course", "c2", () -> "c2")).isEqualTo("c2");
+        } finally {
+            release.countDown();
+        }
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("c1");
+    }
+
+    private void awaitLeader(String flight) throws InterruptedException {
+        awaitCount(meterRegistry.counter("single-flight.calls", "flight", flight, "role", "leader"), 1);
+    }
+
+    private void awaitFollowers(String flight, int followers) throws InterruptedException {
+        awaitCount(meterRegistry.counter("single-flight.calls", "flight", flight, "role", "follower"), followers);
+    }
+
+    private static void awaitCount(Counter counter, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.count() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for " + counter.getId());
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new AssertionError("Timed out waiting for the test to release the loader");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.courseplatform.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void windowNeedsTenSamplesAndAHundredMilliseconds() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 2, 100);
+
+        // enough samples, but the window is still young
+        for (int i = 0; i < 20; i++) {
+            request(limit, 10 * MILLIS, 0);
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+
+        // old enough, but one sample short
+        ageWindow(limit);
+        ReflectionTestUtils.setField(limit, "windowSamples", 0);
+        ReflectionTestUtils.setField(limit, "windowRttSum", 0L);
+        for (int i = 0; i < 9; i++) {
+            request(limit, 10 * MILLIS, 0);
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+
+        // the tenth sample closes the window, which starts the initial probe
+        request(limit, 10 * MILLIS, 0);
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void probeDropsToTheMinimumAndRestoresTheEstimate() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 2, 100);
+
+        window(limit, 10 * MILLIS, 19);
+        assertThat(limit.limit()).isEqualTo(2);
+
+        // the first probe window drains requests admitted under the old limit
+        window(limit, 50 * MILLIS, 19);
+        assertThat(limit.limit()).isEqualTo(2);
+
+        // the second measures the no-load latency
+        window(limit, 5 * MILLIS, 1);
+        assertThat(limit.limit()).isEqualTo(20);
+        assertThat((double) ReflectionTestUtils.getField(limit, "noLoadRttNanos")).isEqualTo(5.0 * MILLIS);
+    }
+
+    @Test
+    void growsWhileLatencyStaysNearTheBaseline() {
+        GradientConcurrencyLimit limit = probed(20, 2, 100, 10 * MILLIS);
+
+        for (int i = 0; i < 20; i++) {
+            window(limit, 12 * MILLIS, limit.limit());
+        }
+
+        assertThat(limit.limit()).isGreaterThan(20).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void doesNotGrowWithoutTraffic() {
+        GradientConcurrencyLimit limit = probed(20, 2, 100, 10 * MILLIS);
+
+        for (int i = 0; i < 20; i++) {
+            window(limit, 10 * MILLIS, 3);
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void shrinksWhenRequestsQueueButNotBelowTheMinimum() {
+        GradientConcurrencyLimit limit = probed(50, 5, 100, 10 * MILLIS);
+
+        window(limit, 100 * MILLIS, 50);
+        int afterOneSlowWindow = limit.limit();
+        // smoothed: one slow window does not halve the limit
+        assertThat(afterOneSlowWindow).isLessThan(50).isGreaterThan(25);
+
+        for (int i = 0; i < 100; i++) {
+            window(limit, 100 * MILLIS, 50);
+        }
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void probesAgainEveryThreeHundredWindows() {
+        GradientConcurrencyLimit limit = probed(20, 2, 100, 10 * MILLIS);
+
+        for (int i = 0; i < 299; i++) {
+            window(limit, 10 * MILLIS, 3);
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+
+        window(limit, 10 * MILLIS, 3);
+        assertThat(limit.limit()).isEqualTo(2);
+
+        // a database that got permanently slower becomes the new baseline
+        window(limit, 40 * MILLIS, 1);
+        window(limit, 40 * MILLIS, 1);
+        assertThat(limit.limit()).isEqualTo(20);
+        assertThat((double) ReflectionTestUtils.getField(limit, "noLoadRttNanos")).isEqualTo(40.0 * MILLIS);
+    }
+
+    @Test
+    void staysFixedWhenTheMinimumIsTheMaximum() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(8, 8, 8);
+
+        for (int i = 0; i < 400; i++) {
+            window(limit, (i % 2 == 0 ? 5 : 500) * MILLIS, 8);
+            assertThat(limit.limit()).isEqualTo(8);
+        }
+    }
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10);
+
+        assertThat(limit.tryAcquire()).isZero();
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+        assertThat(limit.inFlight()).isEqualTo(2);
+
+        limit.release(MILLIS, 1);
+        assertThat(limit.inFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+    }
+
+    // A limit past its initial probe, with the given no-load latency.
+    private static GradientConcurrencyLimit probed(int initial, int min, int max, long noLoadRttNanos) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(initial, min, max);
+        window(limit, noLoadRttNanos, 1);
+        window(limit, noLoadRttNanos, 1);
+        window(limit, noLoadRttNanos, 1);
+        assertThat(limit.limit()).isEqualTo(initial);
+        return limit;
+    }
+
+    // One complete window of ten requests, the busiest seeing maxInFlight requests including itself.
+    private static void window(GradientConcurrencyLimit limit, long rttNanos, int maxInFlight) {
+        ageWindow(limit);
+        for (int i = 0; i < 10; i++) {
+            request(limit, rttNanos, maxInFlight - 1);
+        }
+    }
+
+    private static void request(GradientConcurrencyLimit limit, long rttNanos, int inFlightAtStart) {
+        limit.tryAcquire();
+        limit.release(rttNanos, inFlightAtStart);
+    }
+
+    private static void ageWindow(GradientConcurrencyLimit limit) {
+        ReflectionTestUtils.setField(limit, "windowStart", System.nanoTime() - 200 * MILLIS);
+    }
+}
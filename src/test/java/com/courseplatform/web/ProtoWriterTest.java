@@ -0,0 +1,88 @@
+package com.courseplatform.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtoWriterTest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Test
+    void encodesVarintsInSevenBitGroups() {
+        assertThat(hex(new ProtoWriter().int32(1, 1))).isEqualTo("0801");
+        assertThat(hex(new ProtoWriter().int32(1, 127))).isEqualTo("087f");
+        assertThat(hex(new ProtoWriter().int32(1, 128))).isEqualTo("088001");
+        assertThat(hex(new ProtoWriter().int32(1, 150))).isEqualTo("089601");
+        assertThat(hex(new ProtoWriter().int64(2, 1L << 35))).isEqualTo("10808080808001");
+    }
+
+    @Test
+    void signExtendsNegativeInt32ToTenBytes() {
+        assertThat(hex(new ProtoWriter().int32(1, -1))).isEqualTo("08ffffffffffffffffff01");
+        assertThat(hex(new ProtoWriter().int64(1, Long.MIN_VALUE))).isEqualTo("0880808080808080808001");
+    }
+
+    @Test
+    void encodesFieldNumbersAboveFifteenInTwoByteTags() {
+        assertThat(hex(new ProtoWriter().int32(16, 1))).isEqualTo("800101");
+    }
+
+    @Test
+    void omitsDefaultValues() {
+        ProtoWriter writer = new ProtoWriter()
+                .string(1, null)
+                .string(2, "")
+                .int32(3, 0)
+                .int64(4, null)
+                .int64(5, 0L)
+                .fixedDouble(6, 0.0);
+
+        assertThat(writer.size()).isZero();
+    }
+
+    @Test
+    void writesNegativeZeroDouble() {
+        assertThat(hex(new ProtoWriter().fixedDouble(1, -0.0))).isEqualTo("090000000000000080");
+    }
+
+    @Test
+    void encodesStringsAsUtf8WithTheirByteLength() {
+        assertThat(hex(new ProtoWriter().string(2, "testing"))).isEqualTo("120774657374696e67");
+        assertThat(hex(new ProtoWriter().string(1, "é"))).isEqualTo("0a02c3a9");
+    }
+
+    @Test
+    void encodesDoublesLittleEndian() {
+        assertThat(hex(new ProtoWriter().fixedDouble(1, 1.0))).isEqualTo("09000000000000f03f");
+    }
+
+    @Test
+    void embedsMessagesWithTheirLength() throws IOException {
+        ProtoWriter inner = new ProtoWriter().int32(1, 150);
+        ProtoWriter outer = new ProtoWriter().message(3, inner).message(3, new ProtoWriter());
+
+        assertThat(hex(outer)).isEqualTo("1a030896011a00");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        outer.writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(outer.toByteArray());
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        String value = "x".repeat(1000);
+        ProtoWriter writer = new ProtoWriter(4).string(1, value);
+
+        assertThat(writer.size()).isEqualTo(1 + 2 + 1000);
+        assertThat(hex(writer)).startsWith("0ae807");
+    }
+
+    private static String hex(ProtoWriter writer) {
+        return HEX.formatHex(writer.toByteArray());
+    }
+}
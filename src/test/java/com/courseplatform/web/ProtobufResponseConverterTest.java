@@ -0,0 +1,34 @@
+package com.courseplatform.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtobufResponseConverterTest {
+
+    // as Spring Boot configures it for the JSON responses
+    private final ObjectMapper json = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void formatsTimestampsAsTheJsonResponsesDo() throws Exception {
+        LocalDateTime[] values = {
+                LocalDateTime.of(2024, 3, 1, 9, 30),
+                LocalDateTime.of(2024, 3, 1, 9, 30, 5),
+                LocalDateTime.of(2024, 3, 1, 9, 30, 0, 120_000_000),
+                LocalDateTime.of(2024, 3, 1, 9, 30, 5, 123_456_789)
+        };
+        for (LocalDateTime value : values) {
+            String expected = json.writeValueAsString(value);
+            assertThat('"' + ProtobufResponseConverter.timestamp(value) + '"').as(value.toString()).isEqualTo(expected);
+        }
+        assertThat(ProtobufResponseConverter.timestamp(LocalDateTime.of(2024, 3, 1, 9, 30))).isEqualTo("2024-03-01T09:30:00");
+        assertThat(ProtobufResponseConverter.timestamp(null)).isNull();
+    }
+}